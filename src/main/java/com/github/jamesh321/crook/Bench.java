@@ -0,0 +1,64 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Searches a fixed set of positions to a fixed depth and reports the total
+ * nodes and speed. Because the search is deterministic, the node count acts as
+ * a signature of the search: changes that should not affect the search must
+ * leave it unchanged, and changes to pruning can be compared by it.
+ */
+public final class Bench {
+
+    private Bench() {
+        // private constructor to prevent instantiation of this utility class
+    }
+
+    /**
+     * The depth searched when none is given.
+     */
+    public static final int DEFAULT_DEPTH = 8;
+
+    /**
+     * The bench positions: openings, middlegames with tactics and endgames.
+     */
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "2r3k1/pp3ppp/2n1b3/3p4/3P4/2PB1N2/P4PPP/R5K1 b - - 0 20",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/4k3/3p4/3K4/4P3/8/8 w - - 0 1",
+    };
+
+    /**
+     * Runs the bench and prints the result of each position and the totals.
+     *
+     * @param depth the depth to search each position to
+     * @return the total number of nodes searched
+     */
+    public static long run(int depth) {
+        long totalNodes = 0;
+        long startTime = System.currentTimeMillis();
+
+        for (String fen : POSITIONS) {
+            Engine engine = new Engine(new Board());
+            Fen.load(fen, engine.getBoard());
+
+            Search search = new Search(engine.getSearchContext());
+            Move bestMove = search.iterativeDeepening(depth, TimeManager.unlimited(), engine, info -> {
+            });
+            long nodes = search.getNodes();
+
+            totalNodes += nodes;
+            System.out.printf("info string %s bestmove %s nodes %d\n", fen, bestMove, nodes);
+        }
+
+        long time = Math.max(1, System.currentTimeMillis() - startTime);
+
+        System.out.printf("info string bench depth %d nodes %d time %d nps %d\n", depth, totalNodes, time,
+                totalNodes * 1000 / time);
+
+        return totalNodes;
+    }
+}
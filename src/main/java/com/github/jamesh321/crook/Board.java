@@ -7,6 +7,7 @@ package com.github.jamesh321.crook;
  */
 public class Board {
     private long[] bitboards = new long[12];
+    private int[] pieceCounts = new int[12];
 
     private boolean whiteTurn;
     private int castlingRights;
@@ -19,6 +20,8 @@ public class Board {
     private long occupiedSquares;
     private long emptySquares;
 
+    private long hash;
+
     /**
      * Initialises the board and game rules to the standard starting position.
      */
@@ -45,6 +48,20 @@ public class Board {
         fullmoveCounter = 1;
 
         updateCompositeBitboards();
+        hash = Zobrist.hash(this);
+
+        for (int i = 0; i < 12; i++) {
+            pieceCounts[i] = Long.bitCount(bitboards[i]);
+        }
+    }
+
+    /**
+     * Initialises the board as a copy of another board.
+     *
+     * @param board the board to copy
+     */
+    public Board(Board board) {
+        restoreState(new BoardState(board));
     }
 
     public long[] getBitboards() {
@@ -62,13 +79,37 @@ public class Board {
     }
 
     /**
-     * Sets the bitboard for a specific piece.
+     * Sets the bitboard for a specific piece and updates the hash for the squares
+     * that changed and the count of the piece.
      * 
      * @param piece    the piece to set the bitboard for
      * @param bitboard a long representing the bitboard for the piece
      */
     public void setBitboard(Piece piece, long bitboard) {
-        this.bitboards[piece.getIndex()] = bitboard;
+        int index = piece.getIndex();
+        this.hash ^= Zobrist.pieceHash(index, this.bitboards[index] ^ bitboard);
+        this.pieceCounts[index] += Long.bitCount(bitboard) - Long.bitCount(this.bitboards[index]);
+        this.bitboards[index] = bitboard;
+    }
+
+    /**
+     * Gets the number of each piece on the board, indexed by piece index. This
+     * is the material signature used to look up {@link Material} entries.
+     *
+     * @return the piece counts
+     */
+    public int[] getPieceCounts() {
+        return pieceCounts;
+    }
+
+    /**
+     * Gets the number of a specific piece on the board.
+     *
+     * @param piece the piece to count
+     * @return the number of that piece on the board
+     */
+    public int getPieceCount(Piece piece) {
+        return pieceCounts[piece.getIndex()];
     }
 
     public boolean isWhiteTurn() {
@@ -76,6 +117,9 @@ public class Board {
     }
 
     public void setWhiteTurn(boolean whiteTurn) {
+        if (this.whiteTurn != whiteTurn) {
+            this.hash ^= Zobrist.SIDE;
+        }
         this.whiteTurn = whiteTurn;
     }
 
@@ -84,6 +128,7 @@ public class Board {
     }
 
     public void setCastlingRights(int castlingRights) {
+        this.hash ^= Zobrist.CASTLING[this.castlingRights] ^ Zobrist.CASTLING[castlingRights];
         this.castlingRights = castlingRights;
     }
 
@@ -92,6 +137,12 @@ public class Board {
     }
 
     public void setEnPassantSquare(int enPassantSquare) {
+        if (this.enPassantSquare != -1) {
+            this.hash ^= Zobrist.EN_PASSANT_FILE[this.enPassantSquare % 8];
+        }
+        if (enPassantSquare != -1) {
+            this.hash ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        }
         this.enPassantSquare = enPassantSquare;
     }
 
@@ -111,6 +162,16 @@ public class Board {
         this.fullmoveCounter = fullmoveCounter;
     }
 
+    /**
+     * Gets the Zobrist hash of the position, which is kept up to date as the
+     * board changes.
+     *
+     * @return the hash of the current position
+     */
+    public long getHash() {
+        return hash;
+    }
+
     public long getWhitePieces() {
         return whitePieces;
     }
@@ -203,11 +264,13 @@ public class Board {
      */
     public void restoreState(BoardState previousState) {
         this.bitboards = previousState.getBitboards().clone();
+        this.pieceCounts = previousState.getPieceCounts().clone();
         this.whiteTurn = previousState.isWhiteTurn();
         this.castlingRights = previousState.getCastlingRights();
         this.enPassantSquare = previousState.getEnPassantSquare();
         this.halfmoveClock = previousState.getHalfmoveClock();
         this.fullmoveCounter = previousState.getFullmoveCounter();
+        this.hash = previousState.getHash();
         updateCompositeBitboards();
     }
 }
\ No newline at end of file
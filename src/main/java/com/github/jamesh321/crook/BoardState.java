@@ -8,11 +8,13 @@ package com.github.jamesh321.crook;
  */
 public class BoardState {
     private final long[] bitboards;
+    private final int[] pieceCounts;
     private final boolean whiteTurn;
     private final int castlingRights;
     private final int enPassantSquare;
     private final int halfmoveClock;
     private final int fullmoveCounter;
+    private final long hash;
 
     /**
      * Copies the essential information from a board to save a position.
@@ -21,17 +23,23 @@ public class BoardState {
      */
     BoardState(Board board) {
         this.bitboards = board.getBitboards().clone();
+        this.pieceCounts = board.getPieceCounts().clone();
         this.whiteTurn = board.isWhiteTurn();
         this.castlingRights = board.getCastlingRights();
         this.enPassantSquare = board.getEnPassantSquare();
         this.halfmoveClock = board.getHalfmoveClock();
         this.fullmoveCounter = board.getFullmoveNumber();
+        this.hash = board.getHash();
     }
 
     public long[] getBitboards() {
         return bitboards;
     }
 
+    public int[] getPieceCounts() {
+        return pieceCounts;
+    }
+
     public boolean isWhiteTurn() {
         return whiteTurn;
     }
@@ -51,4 +59,8 @@ public class BoardState {
     public int getFullmoveCounter() {
         return fullmoveCounter;
     }
+
+    public long getHash() {
+        return hash;
+    }
 }
\ No newline at end of file
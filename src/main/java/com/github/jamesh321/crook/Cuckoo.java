@@ -0,0 +1,130 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Cuckoo hash tables of every reversible piece move, used to detect that a
+ * position can repeat after one more move.
+ * <p>
+ * Each entry is keyed by the change a move makes to the Zobrist hash: the keys
+ * of the piece on its start and end squares and the side key. If the hash of
+ * the current position XORed with the hash of an earlier position with the
+ * other side to move matches an entry, that move would return to the earlier
+ * position, provided nothing stands between its squares. The same entry covers
+ * the move in both directions.
+ * <p>
+ * See Marcel van Kervinck, "The cuckoo hashing approach to cycle detection".
+ */
+public final class Cuckoo {
+
+    private Cuckoo() {
+        // private constructor to prevent instantiation of this utility class
+    }
+
+    private static final int SIZE = 8192;
+
+    private static final long[] KEYS = new long[SIZE];
+    private static final Move[] MOVES = new Move[SIZE];
+
+    static {
+        for (int piece = 0; piece < 12; piece++) {
+            // Pawn moves are irreversible
+            if (piece % 6 == 0) {
+                continue;
+            }
+
+            for (int from = 0; from < 64; from++) {
+                long attacks = emptyBoardAttacks(piece % 6, from);
+
+                for (int to = from + 1; to < 64; to++) {
+                    if ((attacks & LookupTables.BITBOARD_SQUARES[to]) == 0) {
+                        continue;
+                    }
+
+                    Move move = new Move(from, to, Move.NORMAL);
+                    long key = Zobrist.PIECE_SQUARE[piece][from] ^ Zobrist.PIECE_SQUARE[piece][to] ^ Zobrist.SIDE;
+                    int slot = firstSlot(key);
+
+                    // Insert by displacing entries between their two slots
+                    while (true) {
+                        long displacedKey = KEYS[slot];
+                        Move displacedMove = MOVES[slot];
+
+                        KEYS[slot] = key;
+                        MOVES[slot] = move;
+
+                        if (displacedMove == null) {
+                            break;
+                        }
+
+                        key = displacedKey;
+                        move = displacedMove;
+                        slot = slot == firstSlot(key) ? secondSlot(key) : firstSlot(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the reversible move that changes a position's hash by the given
+     * amount.
+     *
+     * @param moveKey the XOR of the hashes before and after the move
+     * @return the move, or null if no reversible move has that key
+     */
+    public static Move find(long moveKey) {
+        int slot = firstSlot(moveKey);
+        if (KEYS[slot] == moveKey) {
+            return MOVES[slot];
+        }
+
+        slot = secondSlot(moveKey);
+        if (KEYS[slot] == moveKey) {
+            return MOVES[slot];
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the squares strictly between the start and end squares of a move. A
+     * move can only be made if these are empty.
+     *
+     * @param move the move
+     * @return a bitboard of the squares between the two squares, or 0 for moves
+     *         that do not slide
+     */
+    public static long between(Move move) {
+        long fromBitboard = LookupTables.BITBOARD_SQUARES[move.getFrom()];
+        long toBitboard = LookupTables.BITBOARD_SQUARES[move.getTo()];
+
+        if ((MoveGenerator.getRookAttacks(move.getFrom(), 0L) & toBitboard) != 0) {
+            return MoveGenerator.getRookAttacks(move.getFrom(), toBitboard)
+                    & MoveGenerator.getRookAttacks(move.getTo(), fromBitboard);
+        }
+
+        if ((MoveGenerator.getBishopAttacks(move.getFrom(), 0L) & toBitboard) != 0) {
+            return MoveGenerator.getBishopAttacks(move.getFrom(), toBitboard)
+                    & MoveGenerator.getBishopAttacks(move.getTo(), fromBitboard);
+        }
+
+        return 0L;
+    }
+
+    private static long emptyBoardAttacks(int pieceType, int square) {
+        return switch (pieceType) {
+            case 1 -> LookupTables.KNIGHT_MOVES[square];
+            case 2 -> MoveGenerator.getBishopAttacks(square, 0L);
+            case 3 -> MoveGenerator.getRookAttacks(square, 0L);
+            case 4 -> MoveGenerator.getBishopAttacks(square, 0L) | MoveGenerator.getRookAttacks(square, 0L);
+            default -> LookupTables.KING_MOVES[square];
+        };
+    }
+
+    private static int firstSlot(long key) {
+        return (int) (key & (SIZE - 1));
+    }
+
+    private static int secondSlot(long key) {
+        return (int) ((key >>> 16) & (SIZE - 1));
+    }
+}
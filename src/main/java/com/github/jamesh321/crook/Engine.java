@@ -1,7 +1,7 @@
 package com.github.jamesh321.crook;
 
+import java.util.Arrays;
 import java.util.Stack;
-import java.util.HashMap;
 
 /**
  * The Engine class manages the state of a chess game, including move execution
@@ -13,6 +13,16 @@ import java.util.HashMap;
 public class Engine {
     private Board board;
     private final Stack<BoardState> history;
+    /**
+     * The Zobrist hash of every position before the current one, across both
+     * the game and the moves made by the search, oldest first.
+     */
+    private long[] positionKeys;
+    private int positionCount;
+    /**
+     * The search state kept between moves of the current game.
+     */
+    private final SearchContext searchContext;
 
     /**
      * Constructs an Engine with the specified board.
@@ -22,6 +32,41 @@ public class Engine {
     public Engine(Board board) {
         this.board = board;
         this.history = new Stack<>();
+        this.positionKeys = new long[256];
+        this.positionCount = 0;
+        this.searchContext = new SearchContext();
+    }
+
+    /**
+     * Constructs an Engine on a copy of another engine's position and game
+     * history, so that a second thread can search the same position.
+     *
+     * @param engine        the engine to copy
+     * @param searchContext the search state for the new engine
+     */
+    public Engine(Engine engine, SearchContext searchContext) {
+        this.board = new Board(engine.board);
+        this.history = new Stack<>();
+        this.positionKeys = Arrays.copyOf(engine.positionKeys, engine.positionKeys.length);
+        this.positionCount = engine.positionCount;
+        this.searchContext = searchContext;
+    }
+
+    /**
+     * Copies another engine's position and game history into this engine,
+     * reusing this engine's board and arrays.
+     *
+     * @param engine the engine to copy
+     */
+    public void copyPosition(Engine engine) {
+        board.restoreState(new BoardState(engine.board));
+        history.clear();
+
+        if (positionKeys.length < engine.positionCount) {
+            positionKeys = new long[engine.positionKeys.length];
+        }
+        System.arraycopy(engine.positionKeys, 0, positionKeys, 0, engine.positionCount);
+        positionCount = engine.positionCount;
     }
 
     /**
@@ -33,8 +78,43 @@ public class Engine {
         return board;
     }
 
+    /**
+     * Replaces the current board, clearing the move history.
+     *
+     * @param board the new board
+     */
     public void setBoard(Board board) {
         this.board = board;
+        this.history.clear();
+        this.positionCount = 0;
+    }
+
+    /**
+     * Returns the search state shared by every search on this engine.
+     *
+     * @return the {@link SearchContext}
+     */
+    public SearchContext getSearchContext() {
+        return searchContext;
+    }
+
+    /**
+     * Returns the transposition table shared by every search on this engine.
+     *
+     * @return the {@link TranspositionTable}
+     */
+    public TranspositionTable getTranspositionTable() {
+        return searchContext.getTranspositionTable();
+    }
+
+    /**
+     * Returns the killer moves and history scores shared by every search on this
+     * engine.
+     *
+     * @return the {@link SearchHeuristics}
+     */
+    public SearchHeuristics getSearchHeuristics() {
+        return searchContext.getSearchHeuristics();
     }
 
     /**
@@ -44,50 +124,94 @@ public class Engine {
      */
     public void makeMove(Move move) {
         history.push(new BoardState(board));
+        pushPositionKey();
         MoveExecutor.makeMove(board, move);
     }
 
+    /**
+     * Passes the turn to the other player without moving a piece, for null move
+     * pruning. Only the side to move and the en passant square change, and the
+     * halfmove clock is reset so that repetitions are not detected across the
+     * null move.
+     */
+    public void makeNullMove() {
+        history.push(new BoardState(board));
+        pushPositionKey();
+        board.setHalfmoveClock(0);
+        board.setEnPassantSquare(-1);
+        board.setWhiteTurn(!board.isWhiteTurn());
+    }
+
+    /**
+     * Undoes a null move made with {@link #makeNullMove()}.
+     */
+    public void unmakeNullMove() {
+        undoMove();
+    }
+
     /**
      * Undoes the last move, restoring the previous board state if available.
      */
     public void undoMove() {
         if (!history.isEmpty()) {
             board.restoreState(history.pop());
+            positionCount--;
+        }
+    }
+
+    /**
+     * Determines if the current position has occurred before since the last
+     * irreversible move. Only positions with the same side to move are
+     * compared, and none before the last capture or pawn move.
+     *
+     * @return true if the current position is a repetition
+     */
+    public boolean isRepetition() {
+        long hash = board.getHash();
+        int oldest = Math.max(0, positionCount - board.getHalfmoveClock());
+
+        for (int i = positionCount - 2; i >= oldest; i -= 2) {
+            if (positionKeys[i] == hash) {
+                return true;
+            }
         }
+
+        return false;
     }
 
     /**
-     * Finds the best move for the current player by running a search.
+     * Determines if the side to move can force a repetition with a single
+     * reversible move, using the cuckoo tables in {@link Cuckoo}. Only cycles
+     * entirely within the search are considered.
      *
-     * @param depth        the depth to search to (number of half-moves)
-     * @param lastBestMove the previously found best move to prioritise in move
-     *                     ordering
-     * @param endTime      the timestamp at which the search should terminate
-     * @return hashmap with the best move found, or null if no legal moves exist,
-     *         depth is 0, or
-     *         time has expired and other search information
-     */
-    public HashMap<String, Object> findBestMove(int depth, Move lastBestMove, long endTime) {
-        Search search = new Search();
-
-        Move bestMove = search.findBestMove(depth, lastBestMove, endTime, this);
-        long nodes = search.getNodes();
-        long time = search.getTime();
-        long nps;
-        try {
-            nps = (long) (nodes / (time / 1000.0));
-        } catch (Exception e) {
-            nps = 0;
+     * @param ply the distance of the current position from the search root
+     * @return true if a move leads back to a position seen within the search
+     */
+    public boolean hasUpcomingRepetition(int ply) {
+        int end = Math.min(board.getHalfmoveClock(), positionCount);
+
+        if (end < 3) {
+            return false;
         }
-        int score = search.getScore();
 
-        HashMap<String, Object> moveInfo = new HashMap<>();
-        moveInfo.put("best move", bestMove);
-        moveInfo.put("nodes", nodes);
-        moveInfo.put("time", time);
-        moveInfo.put("nps", nps);
-        moveInfo.put("score", score);
+        long hash = board.getHash();
+        long occupied = board.getOccupiedSquares();
+
+        for (int i = 3; i <= end && i < ply; i += 2) {
+            Move move = Cuckoo.find(hash ^ positionKeys[positionCount - i]);
+
+            if (move != null && (Cuckoo.between(move) & occupied) == 0) {
+                return true;
+            }
+        }
 
-        return moveInfo;
+        return false;
+    }
+
+    private void pushPositionKey() {
+        if (positionCount == positionKeys.length) {
+            positionKeys = Arrays.copyOf(positionKeys, positionKeys.length * 2);
+        }
+        positionKeys[positionCount++] = board.getHash();
     }
 }
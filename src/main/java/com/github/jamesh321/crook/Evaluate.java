@@ -19,19 +19,50 @@ public final class Evaluate {
     public static final int ROOK_VALUE = 500;
     public static final int QUEEN_VALUE = 900;
 
+    /**
+     * The score of a position with known drawn material is divided by this, so
+     * that it is close to a draw but the search can still find a mate.
+     */
+    private static final int KNOWN_DRAW_SCALE = 16;
+
+    private static final int[] PIECE_VALUES = { PAWN_VALUE, KNIGHT_VALUE, BISHOP_VALUE, ROOK_VALUE, QUEEN_VALUE, 0 };
+
+    /**
+     * Gets the material value of a piece, regardless of its colour.
+     *
+     * @param piece the piece to get the value of
+     * @return the value of the piece, or 0 for a king
+     */
+    public static int getPieceValue(Piece piece) {
+        return PIECE_VALUES[piece.getIndex() % 6];
+    }
+
     /**
      * Evaluates the given board and returns a score representing the position.
-     * The evaluation is based on material and piece positions.
+     * The evaluation is based on material, material imbalance and piece
+     * positions. Insufficient material scores 0, and a known draw is scaled
+     * towards 0.
      *
      * @param board the board to evaluate
-     * @return the score of the board position. Positive for white's advantage,
-     *         negative for black's
+     * @return the score of the board position from the point of view of the
+     *         side to move
      */
     public static int board(Board board) {
+        int materialEntry = Material.probe(board);
+
+        if (Material.isInsufficientMaterial(materialEntry)) {
+            return 0;
+        }
+
         int score = 0;
 
         score += material(board);
-        score += piecePositions(board);
+        score += Material.getImbalance(materialEntry);
+        score += piecePositions(board, Material.isEndGame(materialEntry));
+
+        if (Material.isKnownDraw(materialEntry)) {
+            score /= KNOWN_DRAW_SCALE;
+        }
 
         return board.isWhiteTurn() ? score : -score;
     }
@@ -60,10 +91,22 @@ public final class Evaluate {
      * @return the positional score
      */
     public static int piecePositions(Board board) {
+        return piecePositions(board, Material.isEndGame(Material.probe(board)));
+    }
+
+    /**
+     * Evaluates the positions of the pieces on the board using Piece-Square
+     * Tables, using the end game table for the kings in the end game.
+     *
+     * @param board   the board to evaluate
+     * @param endGame true if the position is in the end game
+     * @return the positional score
+     */
+    private static int piecePositions(Board board, boolean endGame) {
         int score = 0;
 
-        score += whitePiecePositions(board);
-        score -= blackPiecePositions(board);
+        score += whitePiecePositions(board, endGame);
+        score -= blackPiecePositions(board, endGame);
 
         return score;
     }
@@ -71,10 +114,11 @@ public final class Evaluate {
     /**
      * Evaluates the positions of white's pieces.
      *
-     * @param board the board to evaluate
+     * @param board   the board to evaluate
+     * @param endGame true if the position is in the end game
      * @return the positional score for white's pieces
      */
-    private static int whitePiecePositions(Board board) {
+    private static int whitePiecePositions(Board board, boolean endGame) {
         int score = 0;
 
         score += piecePositionScore(Piece.WHITE_PAWN, PieceSquareTables.WHITE_PAWN_PST, board);
@@ -82,7 +126,7 @@ public final class Evaluate {
         score += piecePositionScore(Piece.WHITE_BISHOP, PieceSquareTables.WHITE_BISHOP_PST, board);
         score += piecePositionScore(Piece.WHITE_ROOK, PieceSquareTables.WHITE_ROOK_PST, board);
         score += piecePositionScore(Piece.WHITE_QUEEN, PieceSquareTables.WHITE_QUEEN_PST, board);
-        score += isEndGame(board)
+        score += endGame
                 ? piecePositionScore(Piece.WHITE_KING, PieceSquareTables.WHITE_KING_END_GAME_PST, board)
                 : piecePositionScore(Piece.WHITE_KING, PieceSquareTables.WHITE_KING_MIDDLE_GAME_PST, board);
 
@@ -92,10 +136,11 @@ public final class Evaluate {
     /**
      * Evaluates the positions of black's pieces.
      *
-     * @param board the board to evaluate
+     * @param board   the board to evaluate
+     * @param endGame true if the position is in the end game
      * @return the positional score for black's pieces
      */
-    private static int blackPiecePositions(Board board) {
+    private static int blackPiecePositions(Board board, boolean endGame) {
         int score = 0;
 
         score += piecePositionScore(Piece.BLACK_PAWN, PieceSquareTables.BLACK_PAWN_PST, board);
@@ -103,7 +148,7 @@ public final class Evaluate {
         score += piecePositionScore(Piece.BLACK_BISHOP, PieceSquareTables.BLACK_BISHOP_PST, board);
         score += piecePositionScore(Piece.BLACK_ROOK, PieceSquareTables.BLACK_ROOK_PST, board);
         score += piecePositionScore(Piece.BLACK_QUEEN, PieceSquareTables.BLACK_QUEEN_PST, board);
-        score += isEndGame(board)
+        score += endGame
                 ? piecePositionScore(Piece.BLACK_KING, PieceSquareTables.BLACK_KING_END_GAME_PST, board)
                 : piecePositionScore(Piece.BLACK_KING, PieceSquareTables.BLACK_KING_MIDDLE_GAME_PST, board);
 
@@ -135,28 +180,6 @@ public final class Evaluate {
         return score;
     }
 
-    /**
-     * Determines if the game is in the endgame phase.
-     * If the total number of pieces on the board is less than 16,
-     * it's considered the endgame.
-     *
-     * @param board the board to check
-     * @return true if the game is in the endgame, false otherwise
-     */
-    private static boolean isEndGame(Board board) {
-        int pieceCount = 0;
-
-        for (long pieceBitboard : board.getBitboards()) {
-            pieceCount += Long.bitCount(pieceBitboard);
-
-            if (pieceCount >= 16) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     /**
      * Calculates the total material value for white's pieces.
      *
@@ -202,6 +225,6 @@ public final class Evaluate {
      * @return the total score for the given piece type
      */
     private static int getPieceScore(Piece piece, int pieceValue, Board board) {
-        return Long.bitCount(board.getBitboard(piece)) * pieceValue;
+        return board.getPieceCount(piece) * pieceValue;
     }
 }
@@ -0,0 +1,228 @@
+package com.github.jamesh321.crook;
+
+/**
+ * A precomputed table of facts about each combination of material, indexed by
+ * the piece counts of both sides.
+ * <p>
+ * Each entry is packed into an int:
+ * <ul>
+ * <li>bits 0-15: flags for drawn material and the end game</li>
+ * <li>bits 16-31: the material imbalance adjustment from white's point of
+ * view</li>
+ * </ul>
+ * The table covers up to eight pawns, two knights, two bishops, two rooks and
+ * one queen per side. Positions with more, which need a promotion, have their
+ * entry calculated directly instead.
+ */
+public final class Material {
+
+    private Material() {
+        // private constructor to prevent instantiation of this utility class
+    }
+
+    /**
+     * Neither side has enough material to checkmate: KvK, KNvK or KBvK.
+     */
+    public static final int INSUFFICIENT_MATERIAL = 1;
+    /**
+     * Mate is possible but cannot be forced, such as KNNvK or one minor piece
+     * against another with no pawns.
+     */
+    public static final int KNOWN_DRAW = 2;
+    /**
+     * Fewer than 16 pieces, counting pawns and kings, are left on the board.
+     */
+    public static final int END_GAME = 4;
+
+    private static final int DRAW_FLAGS = INSUFFICIENT_MATERIAL | KNOWN_DRAW;
+
+    /**
+     * The fewest pieces on the board, counting pawns and kings, before the
+     * middle game becomes the end game.
+     */
+    private static final int MIDDLE_GAME_PIECES = 16;
+
+    /**
+     * The bonus for having both bishops.
+     */
+    private static final int BISHOP_PAIR_BONUS = 30;
+
+    /**
+     * The number of values each piece count in the table can take, for pawns,
+     * knights, bishops, rooks and queens.
+     */
+    private static final int[] COUNT_LIMITS = { 9, 3, 3, 3, 2 };
+    private static final int SIDE_SIZE = 9 * 3 * 3 * 3 * 2;
+
+    private static final int[] TABLE = new int[SIDE_SIZE * SIDE_SIZE];
+
+    static {
+        int[] counts = new int[12];
+
+        for (int index = 0; index < TABLE.length; index++) {
+            decode(index / SIDE_SIZE, counts, 0);
+            decode(index % SIDE_SIZE, counts, 6);
+            TABLE[index] = computeEntry(counts);
+        }
+    }
+
+    /**
+     * Looks up the material entry for a board.
+     *
+     * @param board the board to look up
+     * @return the packed material entry
+     */
+    public static int probe(Board board) {
+        int index = index(board.getPieceCounts());
+        return index == -1 ? computeEntry(board.getPieceCounts()) : TABLE[index];
+    }
+
+    /**
+     * Gets the flags from a material entry.
+     *
+     * @param entry the packed material entry
+     * @return a combination of {@link #INSUFFICIENT_MATERIAL},
+     *         {@link #KNOWN_DRAW} and {@link #END_GAME}
+     */
+    public static int getFlags(int entry) {
+        return entry & 0xFFFF;
+    }
+
+    /**
+     * Gets the material imbalance adjustment from a material entry.
+     *
+     * @param entry the packed material entry
+     * @return the adjustment from white's point of view
+     */
+    public static int getImbalance(int entry) {
+        return entry >> 16;
+    }
+
+    /**
+     * Determines if a material entry is a draw regardless of the position of the
+     * pieces.
+     *
+     * @param entry the packed material entry
+     * @return true if the material is insufficient or a known draw
+     */
+    public static boolean isDraw(int entry) {
+        return (getFlags(entry) & DRAW_FLAGS) != 0;
+    }
+
+    /**
+     * Determines if neither side has enough material to checkmate, so that no
+     * position with this material can be a mate.
+     *
+     * @param entry the packed material entry
+     * @return true if the material is insufficient
+     */
+    public static boolean isInsufficientMaterial(int entry) {
+        return (getFlags(entry) & INSUFFICIENT_MATERIAL) != 0;
+    }
+
+    /**
+     * Determines if a material entry is a draw that cannot be forced to a mate,
+     * although a mate can still happen on the board.
+     *
+     * @param entry the packed material entry
+     * @return true if the material is a known draw
+     */
+    public static boolean isKnownDraw(int entry) {
+        return (getFlags(entry) & KNOWN_DRAW) != 0;
+    }
+
+    /**
+     * Determines if a material entry is in the end game.
+     *
+     * @param entry the packed material entry
+     * @return true if fewer than 16 pieces are on the board
+     */
+    public static boolean isEndGame(int entry) {
+        return (getFlags(entry) & END_GAME) != 0;
+    }
+
+    /**
+     * Gets the table index of a set of piece counts.
+     *
+     * @param counts the number of each piece, indexed by piece index
+     * @return the index, or -1 if a count is outside the table
+     */
+    static int index(int[] counts) {
+        int white = sideIndex(counts, 0);
+        int black = sideIndex(counts, 6);
+
+        return white == -1 || black == -1 ? -1 : white * SIDE_SIZE + black;
+    }
+
+    private static int sideIndex(int[] counts, int offset) {
+        int index = 0;
+
+        for (int type = 0; type < COUNT_LIMITS.length; type++) {
+            int count = counts[offset + type];
+
+            if (count >= COUNT_LIMITS[type]) {
+                return -1;
+            }
+
+            index = index * COUNT_LIMITS[type] + count;
+        }
+
+        return index;
+    }
+
+    private static void decode(int sideIndex, int[] counts, int offset) {
+        for (int type = COUNT_LIMITS.length - 1; type >= 0; type--) {
+            counts[offset + type] = sideIndex % COUNT_LIMITS[type];
+            sideIndex /= COUNT_LIMITS[type];
+        }
+    }
+
+    private static int computeEntry(int[] counts) {
+        // Both kings are always on the board
+        int pieces = 2;
+        for (int type = 0; type < 5; type++) {
+            pieces += counts[type] + counts[type + 6];
+        }
+
+        int flags = drawFlags(counts) | (pieces < MIDDLE_GAME_PIECES ? END_GAME : 0);
+
+        int imbalance = 0;
+
+        if (counts[Piece.WHITE_BISHOP.getIndex()] >= 2) {
+            imbalance += BISHOP_PAIR_BONUS;
+        }
+        if (counts[Piece.BLACK_BISHOP.getIndex()] >= 2) {
+            imbalance -= BISHOP_PAIR_BONUS;
+        }
+
+        return flags | (imbalance << 16);
+    }
+
+    private static int drawFlags(int[] counts) {
+        int heavy = counts[Piece.WHITE_PAWN.getIndex()] + counts[Piece.BLACK_PAWN.getIndex()]
+                + counts[Piece.WHITE_ROOK.getIndex()] + counts[Piece.BLACK_ROOK.getIndex()]
+                + counts[Piece.WHITE_QUEEN.getIndex()] + counts[Piece.BLACK_QUEEN.getIndex()];
+
+        if (heavy != 0) {
+            return 0;
+        }
+
+        int whiteKnights = counts[Piece.WHITE_KNIGHT.getIndex()];
+        int blackKnights = counts[Piece.BLACK_KNIGHT.getIndex()];
+        int whiteMinors = whiteKnights + counts[Piece.WHITE_BISHOP.getIndex()];
+        int blackMinors = blackKnights + counts[Piece.BLACK_BISHOP.getIndex()];
+
+        if (whiteMinors + blackMinors <= 1) {
+            return INSUFFICIENT_MATERIAL;
+        }
+
+        // One minor piece each, or two knights against a bare king
+        if ((whiteMinors == 1 && blackMinors == 1)
+                || (whiteKnights == 2 && whiteMinors == 2 && blackMinors == 0)
+                || (blackKnights == 2 && blackMinors == 2 && whiteMinors == 0)) {
+            return KNOWN_DRAW;
+        }
+
+        return 0;
+    }
+}
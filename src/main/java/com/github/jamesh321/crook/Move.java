@@ -58,6 +58,16 @@ public class Move {
         this.data = encodeMove(from, to, flag);
     }
 
+    /**
+     * Constructs a Move object from its encoded form, as returned by
+     * {@link #getData()}.
+     *
+     * @param data the encoded move
+     */
+    public Move(int data) {
+        this.data = data;
+    }
+
     /**
      * Constructs a Move object from a string representation of a chess move.
      * The string should be in the format of source square + destination square,
@@ -73,6 +83,15 @@ public class Move {
         this.data = getMoveFromString(move, board);
     }
 
+    /**
+     * Gets the encoded move, which fits in the lowest 16 bits of the integer.
+     *
+     * @return the encoded move
+     */
+    public int getData() {
+        return data;
+    }
+
     public int getFrom() {
         return data & TO_FROM_MASK;
     }
@@ -23,6 +23,30 @@ public final class MoveGenerator {
      * @return An ArrayList of legal moves.
      */
     public static ArrayList<Move> generateLegalMoves(Board board) {
+        return filterLegalMoves(generatePseudoLegalMoves(board), board);
+    }
+
+    /**
+     * Generates a list of all legal captures and promotions for the current board
+     * state. Used by quiescence search, which only looks at moves that change the
+     * material balance.
+     *
+     * @param board The current board state.
+     * @return An ArrayList of legal captures and promotions.
+     */
+    public static ArrayList<Move> generateLegalCaptures(Board board) {
+        return filterLegalMoves(generatePseudoLegalCaptures(board), board);
+    }
+
+    /**
+     * Removes the moves that would leave the king in check from a list of
+     * pseudo-legal moves.
+     *
+     * @param moves The pseudo-legal moves to filter.
+     * @param board The current board state.
+     * @return An ArrayList of the legal moves.
+     */
+    private static ArrayList<Move> filterLegalMoves(ArrayList<Move> moves, Board board) {
         ArrayList<Move> legalMoveList = new ArrayList<>();
 
         long kingBitboard = board.isWhiteTurn() ? board.getBitboard(Piece.WHITE_KING)
@@ -32,7 +56,7 @@ public final class MoveGenerator {
 
         boolean inCheck = kingAttackers != 0;
 
-        for (Move move : generatePseudoLegalMoves(board)) {
+        for (Move move : moves) {
 
             if (isLegalMove(move, kingSquare, kingAttackers, inCheck, board)) {
                 legalMoveList.add(move);
@@ -63,6 +87,86 @@ public final class MoveGenerator {
         return moveList;
     }
 
+    /**
+     * Generates all pseudo-legal captures and promotions for the current board
+     * state.
+     *
+     * @param board The current board state.
+     * @return An ArrayList of pseudo-legal captures and promotions.
+     */
+    public static ArrayList<Move> generatePseudoLegalCaptures(Board board) {
+        ArrayList<Move> moveList = new ArrayList<>();
+
+        long enemyPieces = board.isWhiteTurn() ? board.getBlackPieces() : board.getWhitePieces();
+        long occupied = board.getOccupiedSquares();
+        long knights = board.isWhiteTurn() ? board.getBitboard(Piece.WHITE_KNIGHT)
+                : board.getBitboard(Piece.BLACK_KNIGHT);
+        long bishops = board.isWhiteTurn() ? board.getBitboard(Piece.WHITE_BISHOP)
+                : board.getBitboard(Piece.BLACK_BISHOP);
+        long rooks = board.isWhiteTurn() ? board.getBitboard(Piece.WHITE_ROOK) : board.getBitboard(Piece.BLACK_ROOK);
+        long queens = board.isWhiteTurn() ? board.getBitboard(Piece.WHITE_QUEEN) : board.getBitboard(Piece.BLACK_QUEEN);
+        long king = board.isWhiteTurn() ? board.getBitboard(Piece.WHITE_KING) : board.getBitboard(Piece.BLACK_KING);
+
+        moveList.addAll(generatePawnCaptures(board));
+
+        while (knights != 0) {
+            int from = 63 - Long.numberOfTrailingZeros(knights);
+            moveList.addAll(getMoveList(LookupTables.KNIGHT_MOVES[from] & enemyPieces, from, Move.NORMAL));
+            knights &= knights - 1;
+        }
+
+        moveList.addAll(getSlidingMoves(true, LookupTables.BISHOP_RAYS_WITHOUT_EDGES, bishops | queens, occupied,
+                enemyPieces));
+        moveList.addAll(getSlidingMoves(false, LookupTables.ROOK_RAYS_WITHOUT_EDGES, rooks | queens, occupied,
+                enemyPieces));
+
+        int kingSquare = 63 - Long.numberOfTrailingZeros(king);
+        moveList.addAll(getMoveList(LookupTables.KING_MOVES[kingSquare] & enemyPieces, kingSquare, Move.NORMAL));
+
+        return moveList;
+    }
+
+    /**
+     * Generates pseudo-legal pawn captures, en passant captures and promotions
+     * for the current board state.
+     *
+     * @param board The current board state.
+     * @return An ArrayList of pseudo-legal pawn captures and promotions.
+     */
+    public static ArrayList<Move> generatePawnCaptures(Board board) {
+        ArrayList<Move> moveList = new ArrayList<>();
+
+        boolean whiteTurn = board.isWhiteTurn();
+        long pawns = whiteTurn ? board.getBitboard(Piece.WHITE_PAWN) : board.getBitboard(Piece.BLACK_PAWN);
+        long emptySquares = board.getEmptySquares();
+        long enemySquares = whiteTurn ? board.getBlackPieces() : board.getWhitePieces();
+        long enPassantSquare = board.getEnPassantSquare() != -1
+                ? LookupTables.BITBOARD_SQUARES[board.getEnPassantSquare()]
+                : 0;
+        int secondToLastRank = whiteTurn ? 1 : 6;
+
+        while (pawns != 0) {
+            int from = 63 - Long.numberOfTrailingZeros(pawns);
+            int rank = from / 8;
+
+            long[] moves = generatePawnMovesBitboard(whiteTurn, from, emptySquares, enemySquares, enPassantSquare);
+
+            if (rank != secondToLastRank) {
+                moveList.addAll(getMoveList(moves[0] & enemySquares, from, Move.NORMAL));
+                moveList.addAll(getMoveList(moves[1], from, Move.EN_PASSANT));
+            } else {
+                moveList.addAll(getMoveList(moves[0], from, Move.QUEEN_PROMOTION));
+                moveList.addAll(getMoveList(moves[0], from, Move.ROOK_PROMOTION));
+                moveList.addAll(getMoveList(moves[0], from, Move.BISHOP_PROMOTION));
+                moveList.addAll(getMoveList(moves[0], from, Move.KNIGHT_PROMOTION));
+            }
+
+            pawns &= pawns - 1;
+        }
+
+        return moveList;
+    }
+
     /**
      * Generates pseudo-legal pawn moves for the current board state.
      * Includes single pushes, double pushes, captures, and en passant.
@@ -141,7 +245,7 @@ public final class MoveGenerator {
         long ownPieces = board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces();
         long occupied = board.getOccupiedSquares();
 
-        return getSlidingMoves(true, LookupTables.BISHOP_RAYS_WITHOUT_EDGES, bishops, occupied, ownPieces);
+        return getSlidingMoves(true, LookupTables.BISHOP_RAYS_WITHOUT_EDGES, bishops, occupied, ~ownPieces);
     }
 
     /**
@@ -155,7 +259,7 @@ public final class MoveGenerator {
         long ownPieces = board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces();
         long occupied = board.getOccupiedSquares();
 
-        return getSlidingMoves(false, LookupTables.ROOK_RAYS_WITHOUT_EDGES, rooks, occupied, ownPieces);
+        return getSlidingMoves(false, LookupTables.ROOK_RAYS_WITHOUT_EDGES, rooks, occupied, ~ownPieces);
     }
 
     /**
@@ -171,8 +275,8 @@ public final class MoveGenerator {
         long ownPieces = board.isWhiteTurn() ? board.getWhitePieces() : board.getBlackPieces();
         long occupied = board.getOccupiedSquares();
 
-        moveList.addAll(getSlidingMoves(false, LookupTables.ROOK_RAYS_WITHOUT_EDGES, queens, occupied, ownPieces));
-        moveList.addAll(getSlidingMoves(true, LookupTables.BISHOP_RAYS_WITHOUT_EDGES, queens, occupied, ownPieces));
+        moveList.addAll(getSlidingMoves(false, LookupTables.ROOK_RAYS_WITHOUT_EDGES, queens, occupied, ~ownPieces));
+        moveList.addAll(getSlidingMoves(true, LookupTables.BISHOP_RAYS_WITHOUT_EDGES, queens, occupied, ~ownPieces));
 
         return moveList;
     }
@@ -486,11 +590,11 @@ public final class MoveGenerator {
      *                      edges.
      * @param pieceBitboard The bitboard of the piece type.
      * @param occupied      A bitboard of all occupied squares.
-     * @param ownPieces     A bitboard of the current side's pieces.
+     * @param targets       A bitboard of the squares the pieces may move to.
      * @return An ArrayList of pseudo-legal sliding moves.
      */
     private static ArrayList<Move> getSlidingMoves(boolean isBishop, long[][] rayLookup, long pieceBitboard,
-            long occupied, long ownPieces) {
+            long occupied, long targets) {
         ArrayList<Move> moveList = new ArrayList<>();
 
         while (pieceBitboard != 0) {
@@ -504,7 +608,7 @@ public final class MoveGenerator {
             int index = (int) ((blockers * magicNumber) >>> shift);
 
             long moves = (isBishop ? MagicBitboards.BISHOP_ATTACKS[from][index]
-                    : MagicBitboards.ROOK_ATTACKS[from][index]) & ~ownPieces;
+                    : MagicBitboards.ROOK_ATTACKS[from][index]) & targets;
 
             moveList.addAll(getMoveList(moves, from, Move.NORMAL));
 
@@ -536,6 +640,71 @@ public final class MoveGenerator {
         return moveList;
     }
 
+    /**
+     * Gets a bitboard of the pieces of both colours attacking a given square,
+     * with sliding attacks blocked by the given occupancy. Pieces removed from
+     * the occupancy still appear in the result, so callers should mask it with
+     * the occupancy. Used by static exchange evaluation to find x-ray attackers
+     * as pieces are exchanged off the square.
+     *
+     * @param square   The square to check for attackers.
+     * @param occupied A bitboard of the squares treated as occupied.
+     * @param board    The current board state.
+     * @return A bitboard of pieces of either colour attacking the square.
+     */
+    public static long getAttackersTo(int square, long occupied, Board board) {
+        long[] bitboards = board.getBitboards();
+        long bishopAttacks = getBishopAttacks(square, occupied);
+        long rookAttacks = getRookAttacks(square, occupied);
+
+        return (LookupTables.WHITE_PAWN_ATTACKS[square] & bitboards[Piece.BLACK_PAWN.getIndex()])
+                | (LookupTables.BLACK_PAWN_ATTACKS[square] & bitboards[Piece.WHITE_PAWN.getIndex()])
+                | (LookupTables.KNIGHT_MOVES[square]
+                        & (bitboards[Piece.WHITE_KNIGHT.getIndex()] | bitboards[Piece.BLACK_KNIGHT.getIndex()]))
+                | (bishopAttacks & (bitboards[Piece.WHITE_BISHOP.getIndex()] | bitboards[Piece.BLACK_BISHOP.getIndex()]
+                        | bitboards[Piece.WHITE_QUEEN.getIndex()] | bitboards[Piece.BLACK_QUEEN.getIndex()]))
+                | (rookAttacks & (bitboards[Piece.WHITE_ROOK.getIndex()] | bitboards[Piece.BLACK_ROOK.getIndex()]
+                        | bitboards[Piece.WHITE_QUEEN.getIndex()] | bitboards[Piece.BLACK_QUEEN.getIndex()]))
+                | (LookupTables.KING_MOVES[square]
+                        & (bitboards[Piece.WHITE_KING.getIndex()] | bitboards[Piece.BLACK_KING.getIndex()]));
+    }
+
+    /**
+     * Gets the squares a bishop on the given square attacks.
+     *
+     * @param square   The square of the bishop.
+     * @param occupied A bitboard of all occupied squares.
+     * @return A bitboard of the attacked squares.
+     */
+    public static long getBishopAttacks(int square, long occupied) {
+        long rayMask = LookupTables.BISHOP_RAYS_WITHOUT_EDGES[square][0]
+                | LookupTables.BISHOP_RAYS_WITHOUT_EDGES[square][1]
+                | LookupTables.BISHOP_RAYS_WITHOUT_EDGES[square][2]
+                | LookupTables.BISHOP_RAYS_WITHOUT_EDGES[square][3];
+        int index = (int) (((rayMask & occupied) * MagicBitboards.BISHOP_MAGICS[square])
+                >>> (64 - Long.bitCount(rayMask)));
+
+        return MagicBitboards.BISHOP_ATTACKS[square][index];
+    }
+
+    /**
+     * Gets the squares a rook on the given square attacks.
+     *
+     * @param square   The square of the rook.
+     * @param occupied A bitboard of all occupied squares.
+     * @return A bitboard of the attacked squares.
+     */
+    public static long getRookAttacks(int square, long occupied) {
+        long rayMask = LookupTables.ROOK_RAYS_WITHOUT_EDGES[square][0]
+                | LookupTables.ROOK_RAYS_WITHOUT_EDGES[square][1]
+                | LookupTables.ROOK_RAYS_WITHOUT_EDGES[square][2]
+                | LookupTables.ROOK_RAYS_WITHOUT_EDGES[square][3];
+        int index = (int) (((rayMask & occupied) * MagicBitboards.ROOK_MAGICS[square])
+                >>> (64 - Long.bitCount(rayMask)));
+
+        return MagicBitboards.ROOK_ATTACKS[square][index];
+    }
+
     /**
      * Gets a bitboard of all pieces attacking a given square.
      *
@@ -0,0 +1,230 @@
+package com.github.jamesh321.crook;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Provides static methods to score moves and pick them in order of their
+ * score, so that the moves most likely to be best are searched first.
+ * <p>
+ * Moves are not sorted up front. Instead, {@link #pickMove} does one step of a
+ * selection sort each time the search needs the next move, so no work is
+ * wasted on moves that are never searched after a cutoff.
+ */
+public final class MoveOrderer {
+
+    private MoveOrderer() {
+        // private constructor to prevent instantiation of this utility class
+    }
+
+    /**
+     * The score given to the move from the transposition table, so that it is
+     * always searched first.
+     */
+    public static final int HASH_MOVE_SCORE = 1_000_000;
+    /**
+     * The base score for captures and promotions, so that they are searched
+     * before quiet moves.
+     */
+    public static final int CAPTURE_SCORE = 100_000;
+    /**
+     * The score for the most recent killer move at a ply. The older killer scores
+     * one less. Both are searched after captures but before other quiet moves.
+     */
+    public static final int KILLER_SCORE = 50_000;
+    /**
+     * The score for the countermove to the previous move, searched after the
+     * killer moves.
+     */
+    public static final int COUNTER_MOVE_SCORE = KILLER_SCORE - 2;
+
+    /**
+     * Scores moves for the main search. The hash move comes first, then captures
+     * and promotions in MVV-LVA order adjusted by capture history, then killer
+     * moves and the countermove, then the remaining quiet moves by the sum of
+     * their history and continuation history scores.
+     *
+     * @param moves            the moves to score
+     * @param board            the board the moves are played on
+     * @param hashMove         the encoded move from the transposition table, or
+     *                         0 if there is none
+     * @param heuristics       the killer moves and history scores
+     * @param ply              the distance of the position from the root
+     * @param previousPieceTo  the (piece, destination) index of the previous
+     *                         move, or -1 if there is none
+     * @param twoPliesPieceTo  the (piece, destination) index of the move before
+     *                         that, or -1 if there is none
+     * @return the score of each move, in the same order as the moves
+     */
+    public static int[] scoreMoves(ArrayList<Move> moves, Board board, int hashMove, SearchHeuristics heuristics,
+            int ply, int previousPieceTo, int twoPliesPieceTo) {
+        return scoreMoves(moves, board, hashMove, heuristics, ply, previousPieceTo, twoPliesPieceTo,
+                new int[moves.size()]);
+    }
+
+    /**
+     * Scores moves for move ordering into a buffer the caller owns, so that the
+     * search does not allocate an array at every node.
+     *
+     * @param moves            the moves to score
+     * @param board            the board the moves are played on
+     * @param hashMove         the encoded move from the transposition table, or
+     *                         0 if there is none
+     * @param heuristics       the killer moves and history scores
+     * @param ply              the distance of the position from the root
+     * @param previousPieceTo  the (piece, destination) index of the previous
+     *                         move, or -1 if there is none
+     * @param twoPliesPieceTo  the (piece, destination) index of the move before
+     *                         that, or -1 if there is none
+     * @param scores           the buffer to write the scores to, at least as long
+     *                         as the list of moves
+     * @return the buffer, holding the score of each move in the same order as the
+     *         moves
+     */
+    public static int[] scoreMoves(ArrayList<Move> moves, Board board, int hashMove, SearchHeuristics heuristics,
+            int ply, int previousPieceTo, int twoPliesPieceTo, int[] scores) {
+        int counterMove = heuristics.getCounterMove(previousPieceTo);
+
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+
+            if (move.getData() == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (!isQuiet(move, board)) {
+                int captureHistory = heuristics.getCaptureHistory(SearchHeuristics.pieceTo(move, board),
+                        SearchHeuristics.capturedType(move, board));
+                scores[i] = CAPTURE_SCORE + mvvLva(move, board) + captureHistory / 32;
+            } else if (move.getData() == heuristics.getKiller(ply, 0)) {
+                scores[i] = KILLER_SCORE;
+            } else if (move.getData() == heuristics.getKiller(ply, 1)) {
+                scores[i] = KILLER_SCORE - 1;
+            } else if (move.getData() == counterMove) {
+                scores[i] = COUNTER_MOVE_SCORE;
+            } else {
+                int pieceTo = SearchHeuristics.pieceTo(move, board);
+                scores[i] = heuristics.getHistory(board.isWhiteTurn(), move)
+                        + heuristics.getContinuationHistory(1, previousPieceTo, pieceTo)
+                        + heuristics.getContinuationHistory(2, twoPliesPieceTo, pieceTo);
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * Determines if a move is quiet, meaning it is neither a capture nor a
+     * promotion.
+     *
+     * @param move  the move to check
+     * @param board the board the move is played on
+     * @return true if the move is quiet, false otherwise
+     */
+    public static boolean isQuiet(Move move, Board board) {
+        return !isCapture(move, board) && move.getSpecialMove() != Move.QUEEN_PROMOTION;
+    }
+
+    /**
+     * Determines if a move captures a piece.
+     *
+     * @param move  the move to check
+     * @param board the board the move is played on
+     * @return true if the move is a capture or en passant, false otherwise
+     */
+    public static boolean isCapture(Move move, Board board) {
+        return move.getSpecialMove() == Move.EN_PASSANT
+                || (board.getOccupiedSquares() & LookupTables.BITBOARD_SQUARES[move.getTo()]) != 0;
+    }
+
+    /**
+     * Scores captures by most valuable victim, least valuable attacker
+     * (MVV-LVA), so that taking a queen with a pawn is tried before taking a pawn
+     * with a queen. Promotions score the value of the piece they promote to.
+     *
+     * @param moves the captures and promotions to score
+     * @param board the board the moves are played on
+     * @return the score of each move, in the same order as the moves
+     */
+    public static int[] scoreCaptures(ArrayList<Move> moves, Board board) {
+        return scoreCaptures(moves, board, new int[moves.size()]);
+    }
+
+    /**
+     * Scores captures by MVV-LVA into a buffer the caller owns.
+     *
+     * @param moves  the captures and promotions to score
+     * @param board  the board the moves are played on
+     * @param scores the buffer to write the scores to, at least as long as the
+     *               list of moves
+     * @return the buffer, holding the score of each move in the same order as the
+     *         moves
+     */
+    public static int[] scoreCaptures(ArrayList<Move> moves, Board board, int[] scores) {
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = mvvLva(moves.get(i), board);
+        }
+
+        return scores;
+    }
+
+    /**
+     * Calculates the MVV-LVA score of a move.
+     *
+     * @param move  the move to score
+     * @param board the board the move is played on
+     * @return the score of the move, higher for captures of more valuable pieces
+     *         by less valuable pieces
+     */
+    public static int mvvLva(Move move, Board board) {
+        int score = 10 * getCapturedValue(move, board);
+
+        if (move.getSpecialMove() == Move.QUEEN_PROMOTION) {
+            score += 10 * Evaluate.getPieceValue(MoveExecutor.getPromotionPiece(move.getPromotionPiece(), true));
+        }
+
+        Piece attacker = board.getPieceAtSquare(move.getFrom());
+        return score - (attacker == null ? 0 : Evaluate.getPieceValue(attacker)) / 100;
+    }
+
+    /**
+     * Gets the material value of the piece a move captures.
+     *
+     * @param move  the move to check
+     * @param board the board the move is played on
+     * @return the value of the captured piece, or 0 if the move is not a capture
+     */
+    public static int getCapturedValue(Move move, Board board) {
+        if (move.getSpecialMove() == Move.EN_PASSANT) {
+            return Evaluate.PAWN_VALUE;
+        }
+
+        Piece victim = board.getPieceAtSquare(move.getTo());
+        return victim == null ? 0 : Evaluate.getPieceValue(victim);
+    }
+
+    /**
+     * Moves the highest scoring of the remaining moves to the given index, along
+     * with its score.
+     *
+     * @param moves  the moves being searched
+     * @param scores the score of each move
+     * @param index  the index of the next move to search; moves before it have
+     *               already been searched
+     */
+    public static void pickMove(ArrayList<Move> moves, int[] scores, int index) {
+        int best = index;
+
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        if (best != index) {
+            Collections.swap(moves, index, best);
+
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+    }
+}
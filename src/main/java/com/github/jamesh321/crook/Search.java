@@ -1,32 +1,437 @@
 package com.github.jamesh321.crook;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 /**
  * The Search class implements chess position analysis algorithms to find the
  * best move
  * in a given position. It uses the negamax algorithm, a variant of minimax, to
  * evaluate chess positions and determine optimal moves. It also uses alpha-beta
- * pruning to improve search efficiency.
+ * pruning with principal variation search to improve search efficiency, and a
+ * transposition table to reuse results between nodes, iterations and moves.
  */
 public class Search {
 
     /**
-     * The total nodes visited in this search.
+     * The maximum distance from the root the search can reach.
+     */
+    public static final int MAX_PLY = 128;
+
+    /**
+     * The score of delivering checkmate at the root. A mate found n plies from
+     * the root scores {@code MATE - n}, so shorter mates score higher. The full
+     * search window is {@code -MATE} to {@code MATE}.
+     */
+    public static final int MATE = 100000;
+
+    /**
+     * Scores at or beyond this are mate scores.
+     */
+    public static final int MATE_THRESHOLD = MATE - 2 * MAX_PLY;
+
+    /**
+     * The half-width of the first aspiration window around the previous score.
+     */
+    private static final int ASPIRATION_WINDOW = 25;
+
+    /**
+     * The shallowest depth that uses an aspiration window. Scores from shallower
+     * iterations are too unstable to centre a window on.
+     */
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+
+    /**
+     * Once the window has widened past this, the full window is used instead.
+     */
+    private static final int ASPIRATION_MAX_WINDOW = 1000;
+
+    /**
+     * Lazy SMP depth skew. Helper thread {@code i} skips every other block of
+     * {@code SKIP_SIZE[(i - 1) % 20]} depths, offset by
+     * {@code SKIP_PHASE[(i - 1) % 20]}, so that helpers spread over the current
+     * and next depths instead of all searching the same tree.
+     */
+    private static final int[] SKIP_SIZE = { 1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4 };
+    private static final int[] SKIP_PHASE = { 0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    /**
+     * The number of nodes between checks of the clock.
+     */
+    private static final int TIME_CHECK_NODES = 1024;
+
+    /**
+     * The shallowest depth at which null move pruning is tried.
+     */
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+
+    /**
+     * The base depth reduction for the null move search. One more ply is added
+     * for every six plies of remaining depth.
+     */
+    private static final int NULL_MOVE_REDUCTION = 3;
+
+    /**
+     * The depth from which null move cutoffs are verified with a normal search,
+     * to guard against zugzwang.
+     */
+    private static final int NULL_MOVE_VERIFICATION_DEPTH = 12;
+
+    /**
+     * How much shallower the ProbCut verification search is.
+     */
+    static final int PROBCUT_REDUCTION = 4;
+
+    /**
+     * The shallowest depth at which a node without a hash move is reduced.
+     */
+    private static final int IIR_MIN_DEPTH = 4;
+
+    /**
+     * The shallowest depth at which a node without a hash move runs an internal
+     * iterative deepening search.
+     */
+    private static final int IID_MIN_DEPTH = 5;
+
+    /**
+     * How much shallower the internal iterative deepening search is.
+     */
+    private static final int IID_REDUCTION = 2;
+
+    /**
+     * The shallowest depth at which the hash move is tested for singularity.
+     */
+    private static final int SINGULAR_MIN_DEPTH = 6;
+
+    /**
+     * How much worse than the hash move's score, per ply of depth, every other
+     * move must be for the hash move to be singular.
+     */
+    private static final int SINGULAR_MARGIN = 2;
+
+    /**
+     * The most plies a single line can be extended by. Stops check and
+     * singular extensions from growing the search without bound.
+     */
+    private static final int MAX_LINE_EXTENSIONS = 16;
+
+    /**
+     * The shallowest depth at which late move reductions are applied.
+     */
+    private static final int LMR_MIN_DEPTH = 3;
+
+    /**
+     * The number of moves searched at full depth before late move reductions
+     * start.
+     */
+    private static final int LMR_MIN_MOVE_INDEX = 3;
+
+    /**
+     * The history score worth one ply less reduction.
+     */
+    private static final int LMR_HISTORY_DIVISOR = 8192;
+
+    /**
+     * Late move reductions indexed by [depth][move index], growing with the
+     * logarithm of both.
+     */
+    private static final int[][] LMR_REDUCTIONS = new int[64][64];
+
+    static {
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moveIndex = 1; moveIndex < 64; moveIndex++) {
+                LMR_REDUCTIONS[depth][moveIndex] = (int) (0.75 + Math.log(depth) * Math.log(moveIndex) / 2.25);
+            }
+        }
+    }
+
+    /**
+     * The total nodes visited since the search started.
      */
     private long nodes = 0;
 
     /**
-     * The time taken for the search.
+     * The epoch time in milliseconds at which the search started.
+     */
+    private long startTime;
+
+    /**
+     * The milliseconds from the start of the search to the end of the last
+     * root search.
      */
     private long time;
 
+    /**
+     * The {@link System#nanoTime()} at which the search must stop.
+     */
+    private long deadline = Long.MAX_VALUE;
+
+    /**
+     * The node count at which the clock is next read.
+     */
+    private long nextTimeCheck = 0;
+
+    /**
+     * The number of legal moves in the root position of the last root search.
+     */
+    private int rootMoves;
+
+    /**
+     * The best move among the root moves searched in full before the last root
+     * search was stopped, or null if none raised alpha, with its score.
+     */
+    private Move interruptedBestMove;
+    private int interruptedScore;
+
     /**
      * The score for the given position.
      */
     private int score;
 
+    /**
+     * Counters for measuring move ordering.
+     */
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * 0 for the main search thread, or the number of a Lazy SMP helper thread.
+     */
+    private final int threadIndex;
+
+    private final TranspositionTable transpositionTable;
+    private final SearchHeuristics heuristics;
+
+    /**
+     * The (piece, destination) index of the move made at each ply, from the
+     * search context.
+     */
+    private final int[] movedPieceTo;
+
+    /**
+     * Null moves are not tried at plies below this, which disables them during a
+     * verification search.
+     */
+    private int nullMoveMinPly = 0;
+
+    /**
+     * The number of plies the line leading to each ply has been extended by,
+     * from the search context.
+     */
+    private final int[] lineExtensions;
+
+    /**
+     * The move to leave out at each ply during a singular extension search, from
+     * the search context.
+     */
+    private final int[] excludedMoves;
+
+    /**
+     * The move ordering scores and the moves searched at each ply, from the
+     * search context.
+     */
+    private final int[][] moveScores;
+    private final Move[][] quietsSearched;
+    private final Move[][] capturesSearched;
+
+    /**
+     * The triangular principal variation table. Row {@code ply} holds the best
+     * line found from that ply, in columns {@code ply} to
+     * {@code pvLength[ply] - 1}, and is built from row {@code ply + 1} whenever a
+     * move raises alpha.
+     */
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+
+    /**
+     * The column one past the end of each row of the principal variation table.
+     */
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    /**
+     * The encoded move made at each ply of the line being searched, or 0 for a
+     * null move.
+     */
+    private final int[] currentLine = new int[MAX_PLY + 1];
+
+    /**
+     * The principal variation of the last completed iteration. Its moves are
+     * searched first while the search follows it.
+     */
+    private int[] previousPv = new int[0];
+
+    /**
+     * The deepest iteration completed, with its best move and score.
+     */
+    private int completedDepth = 0;
+    private Move bestMove;
+    private int bestScore;
+
+    /**
+     * True if the best move comes from an iteration deeper than the completed
+     * depth, which was stopped after that move had beaten the previous one.
+     */
+    private boolean improvedByInterruptedIteration = false;
+
+    /**
+     * Set once the search has run out of time, been interrupted or been stopped
+     * from another thread. Every node returns as soon as it sees this, and
+     * their scores are ignored.
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Constructs a search that reads and updates the given context.
+     *
+     * @param context the transposition table, move ordering tables and search
+     *                stack of the current game
+     */
+    public Search(SearchContext context) {
+        this(context, 0);
+    }
+
+    /**
+     * Constructs a search for one thread of a Lazy SMP search. Helper threads
+     * skip some depths so that they do not all search the same tree.
+     *
+     * @param context     the transposition table, move ordering tables and
+     *                    search stack of this thread
+     * @param threadIndex 0 for the main thread, or the number of the helper
+     *                    thread
+     */
+    public Search(SearchContext context, int threadIndex) {
+        this.threadIndex = threadIndex;
+        this.transpositionTable = context.getTranspositionTable();
+        this.heuristics = context.getSearchHeuristics();
+        this.movedPieceTo = context.getMovedPieceTo();
+        this.lineExtensions = context.getLineExtensions();
+        this.excludedMoves = context.getExcludedMoves();
+        this.moveScores = context.getMoveScores();
+        this.quietsSearched = context.getQuietsSearched();
+        this.capturesSearched = context.getCapturesSearched();
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Searches the position with iterative deepening: each depth from 1 up to
+     * the maximum is searched in turn, with the best move of one iteration
+     * searched first in the next. From {@link #ASPIRATION_MIN_DEPTH} each
+     * iteration uses a narrow window around the previous score, widened and
+     * searched again whenever the score falls outside it.
+     * <p>
+     * After each iteration the time manager rescales its limits. No new
+     * iteration is started once the soft limit has passed, and the search is
+     * stopped mid-iteration at the hard limit.
+     *
+     * @param maxDepth    the deepest iteration to search
+     * @param timeManager decides when the search should terminate
+     * @param engine      the chess engine containing the current game state
+     * @param listener    receives the result of each iteration
+     * @return the best move of the last completed iteration, or of the stopped
+     *         iteration if it had already found a better one, a legal move if no
+     *         iteration completed, or null if there are no legal moves
+     */
+    public Move iterativeDeepening(int maxDepth, TimeManager timeManager, Engine engine, SearchListener listener) {
+        this.startTime = System.currentTimeMillis();
+        this.deadline = timeManager.getHardDeadline();
+        this.nextTimeCheck = 0;
+
+        Move lastBestMove = null;
+        int lastScore = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (threadIndex > 0 && depth > 1
+                    && ((depth + SKIP_PHASE[(threadIndex - 1) % 20]) / SKIP_SIZE[(threadIndex - 1) % 20]) % 2 != 0) {
+                continue;
+            }
+
+            int delta = ASPIRATION_WINDOW;
+            int alpha = -MATE;
+            int beta = MATE;
+
+            if (depth >= ASPIRATION_MIN_DEPTH && !isMateScore(lastScore)) {
+                alpha = lastScore - delta;
+                beta = lastScore + delta;
+            }
+
+            Move bestMove;
+
+            // Re-search with a wider window until the score falls inside it
+            while (true) {
+                bestMove = searchRoot(depth, alpha, beta, lastBestMove, engine);
+
+                if (stopped || (score > alpha && score < beta) || (alpha == -MATE && beta == MATE)) {
+                    break;
+                }
+
+                delta += delta / 2;
+
+                if (score <= alpha) {
+                    listener.onIteration(new SearchInfo(depth, null, score, TranspositionTable.UPPER_BOUND, nodes,
+                            time, new int[0], statistics));
+                    beta = (alpha + beta) / 2;
+                    alpha = Math.max(score - delta, -MATE);
+                } else {
+                    previousPv = getPrincipalVariation();
+                    listener.onIteration(new SearchInfo(depth, bestMove, score, TranspositionTable.LOWER_BOUND,
+                            nodes, time, previousPv, statistics));
+                    lastBestMove = bestMove;
+                    beta = Math.min(score + delta, MATE);
+                }
+
+                if (delta > ASPIRATION_MAX_WINDOW) {
+                    alpha = -MATE;
+                    beta = MATE;
+                }
+            }
+
+            if (bestMove == null || stopped) {
+                break;
+            }
+
+            lastBestMove = bestMove;
+            lastScore = score;
+            previousPv = getPrincipalVariation();
+
+            this.completedDepth = depth;
+            this.bestMove = bestMove;
+            this.bestScore = score;
+
+            listener.onIteration(new SearchInfo(depth, bestMove, score, TranspositionTable.EXACT, nodes, time,
+                    previousPv, statistics));
+
+            timeManager.update(bestMove, score, rootMoves);
+            this.deadline = timeManager.getHardDeadline();
+
+            if (isOutOfTime() || timeManager.isSoftLimitReached()) {
+                break;
+            }
+        }
+
+        // The root moves searched in full before a stop have exact results: one
+        // that raised alpha beat the previous best move, which is searched first
+        if (stopped && interruptedBestMove != null) {
+            if (lastBestMove != null && interruptedBestMove.getData() != lastBestMove.getData()) {
+                this.improvedByInterruptedIteration = true;
+                this.bestScore = interruptedScore;
+            }
+
+            lastBestMove = interruptedBestMove;
+            this.bestMove = lastBestMove;
+        }
+
+        // Stopped before the first iteration finished, or the fifty-move rule
+        // has been reached: any legal move is better than none
+        if (lastBestMove == null) {
+            ArrayList<Move> moves = MoveGenerator.generateLegalMoves(engine.getBoard());
+
+            if (!moves.isEmpty()) {
+                lastBestMove = moves.get(0);
+                this.bestMove = lastBestMove;
+            }
+        }
+
+        return lastBestMove;
+    }
+
     /**
      * Finds the best move for the current player in the given position by searching
      * to the specified depth using the negamax algorithm with alpha-beta pruning.
@@ -41,52 +446,113 @@ public class Search {
      *         time has expired/interrupted
      */
     public Move findBestMove(int depth, Move lastBestMove, long endTime, Engine engine) {
-        long startTime = System.currentTimeMillis();
+        return findBestMove(depth, -MATE, MATE, lastBestMove, endTime, engine);
+    }
+
+    /**
+     * Finds the best move for the current player by searching the root moves
+     * within the given window. If the score of the position is outside the
+     * window the search fails low or high: the score returned by
+     * {@link #getScore()} is then only a bound, and on a fail low no best move is
+     * returned.
+     *
+     * @param depth        the depth to search to (number of half-moves)
+     * @param alpha        the lower bound of the window
+     * @param beta         the upper bound of the window
+     * @param lastBestMove the previously found best move to prioritise in move
+     *                     ordering; may be null
+     * @param endTime      the epoch time in milliseconds at which the search should
+     *                     terminate
+     * @param engine       the chess engine containing the current game state
+     * @return the best move found, or null if no legal moves exist, depth is 0,
+     *         the search failed low, or time has expired/interrupted
+     */
+    public Move findBestMove(int depth, int alpha, int beta, Move lastBestMove, long endTime, Engine engine) {
+        setDeadline(endTime);
+        return searchRoot(depth, alpha, beta, lastBestMove, engine);
+    }
 
+    /**
+     * Searches the root moves within the given window, stopping at the deadline
+     * already set.
+     *
+     * @param depth        the depth to search to (number of half-moves)
+     * @param alpha        the lower bound of the window
+     * @param beta         the upper bound of the window
+     * @param lastBestMove the previously found best move to prioritise in move
+     *                     ordering; may be null
+     * @param engine       the chess engine containing the current game state
+     * @return the best move found, or null if no legal moves exist, depth is 0,
+     *         the search failed low, or the search was stopped
+     */
+    private Move searchRoot(int depth, int alpha, int beta, Move lastBestMove, Engine engine) {
         if (depth == 0) {
             return null;
         }
 
         Move bestMove = null;
-        int alpha = -100000;
-        int beta = 100000;
+        pvLength[0] = 0;
+        interruptedBestMove = null;
 
         ArrayList<Move> moves = MoveGenerator.generateLegalMoves(engine.getBoard());
+        rootMoves = moves.size();
 
-        if (lastBestMove != null) {
-            Collections.swap(moves, 0, moves.indexOf(lastBestMove));
-        }
-
-        if (moves.isEmpty() || engine.getBoard().getHalfmoveClock() == 100) {
+        if (moves.isEmpty() || engine.getBoard().getHalfmoveClock() >= 100) {
             return null;
         }
 
-        for (Move move : moves) {
-            if (Thread.currentThread().isInterrupted() || System.currentTimeMillis() >= endTime) {
+        int hashMove = lastBestMove != null ? lastBestMove.getData()
+                : TranspositionTable.getMove(transpositionTable.probe(engine.getBoard().getHash()));
+        int[] scores = MoveOrderer.scoreMoves(moves, engine.getBoard(), hashMove, heuristics, 0, -1, -1,
+                moveScores[0]);
+
+        for (int i = 0; i < moves.size(); i++) {
+            MoveOrderer.pickMove(moves, scores, i);
+            Move move = moves.get(i);
+
+            if (shouldStop()) {
+                interruptedBestMove = bestMove;
+                interruptedScore = alpha;
                 return null;
             }
 
+            movedPieceTo[0] = SearchHeuristics.pieceTo(move, engine.getBoard());
+            currentLine[0] = move.getData();
+            lineExtensions[1] = 0;
+            pvLength[1] = 1;
             engine.makeMove(move);
 
-            int score = -negamax(depth - 1, -beta, -alpha, endTime, engine);
+            int score = searchMove(depth - 1, 1, alpha, beta, i == 0, 0, engine);
 
             engine.undoMove();
 
-            if (score == 12345) {
+            if (stopped) {
+                interruptedBestMove = bestMove;
+                interruptedScore = alpha;
                 return null;
             }
 
             if (score > alpha) {
                 alpha = score;
                 bestMove = move;
+                updatePrincipalVariation(0, move);
             }
 
             this.nodes += 1;
+
+            if (alpha >= beta) {
+                break;
+            }
         }
 
         this.score = alpha;
         this.time = System.currentTimeMillis() - startTime;
 
+        int bound = alpha >= beta ? TranspositionTable.LOWER_BOUND
+                : bestMove != null ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(engine.getBoard().getHash(), bestMove == null ? 0 : bestMove.getData(), depth,
+                bound, scoreToEntry(alpha, 0));
+
         return bestMove;
     }
 
@@ -99,41 +565,639 @@ public class Search {
      * perspective.
      *
      * @param depth   the remaining depth to search (number of half-moves)
+     * @param ply     the distance from the root (number of half-moves)
      * @param alpha   the alpha value for alpha-beta pruning
      * @param beta    the beta value for alpha-beta pruning
-     * @param endTime the epoch time in milliseconds at which the search should
-     *                terminate
      * @param engine  the chess engine containing the current game state
-     * @return the evaluation score from the perspective of the current player;
-     *         returns 12345 if time expired
+     * @return the evaluation score from the perspective of the current player, or
+     *         0 if the search was stopped
      */
-    public int negamax(int depth, int alpha, int beta, long endTime, Engine engine) {
-        if (depth == 0) {
-            return Evaluate.board(engine.getBoard());
+    public int negamax(int depth, int ply, int alpha, int beta, Engine engine) {
+        pvLength[ply] = ply;
+
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(ply, alpha, beta, engine);
         }
 
-        ArrayList<Move> moves = MoveGenerator.generateLegalMoves(engine.getBoard());
+        // Mate distance pruning: no line from here can beat mating at the next
+        // ply or be worse than being mated here, so if the window lies outside
+        // those bounds there is nothing to search
+        alpha = Math.max(alpha, -MATE + ply);
+        beta = Math.min(beta, MATE - ply - 1);
+
+        if (alpha >= beta) {
+            return alpha;
+        }
+
+        // Only insufficient material rules out a mate: a known draw is left to
+        // the search, which may still find one on the board
+        if (engine.isRepetition() || Material.isInsufficientMaterial(Material.probe(engine.getBoard()))) {
+            return 0;
+        }
+
+        // The fifty-move rule draws, unless the move that reached it mated
+        if (engine.getBoard().getHalfmoveClock() >= 100 && (!inCheck(engine.getBoard())
+                || !MoveGenerator.generateLegalMoves(engine.getBoard()).isEmpty())) {
+            return 0;
+        }
+
+        // If the side to move can repeat a position from earlier in the search,
+        // it can at least hold a draw
+        if (alpha < 0 && engine.hasUpcomingRepetition(ply)) {
+            alpha = 0;
+
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+
+        // PV nodes have an open window and may become part of the principal
+        // variation. Every other node is searched with a null window and only
+        // needs to prove a bound.
+        boolean pvNode = beta - alpha > 1;
+        Board board = engine.getBoard();
+
+        long hash = board.getHash();
+        long entry = transpositionTable.probe(hash);
+        int hashMove = 0;
+
+        int excludedMove = excludedMoves[ply];
+
+        if (entry != 0) {
+            hashMove = TranspositionTable.getMove(entry);
+
+            if (!pvNode && excludedMove == 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int entryScore = scoreFromEntry(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && entryScore >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && entryScore <= alpha)) {
+                    return entryScore;
+                }
+            }
+        }
+
+        boolean inCheck = inCheck(board);
+        int staticEval = inCheck ? -MATE : Evaluate.board(board);
+
+        // Reverse futility pruning: if the static evaluation beats beta by a
+        // margin that grows with depth, assume a real move will too.
+        if (!pvNode && !inCheck && excludedMove == 0 && depth <= SearchParameter.REVERSE_FUTILITY_DEPTH.get()
+                && Math.abs(beta) < MATE_THRESHOLD
+                && staticEval - SearchParameter.REVERSE_FUTILITY_MARGIN.get() * depth >= beta) {
+            statistics.reverseFutilityPrune();
+            return beta;
+        }
+
+        // Razoring: if the static evaluation is far below alpha near the leaves,
+        // only a capture can save the position, so drop into quiescence search.
+        if (!pvNode && !inCheck && excludedMove == 0 && depth <= SearchParameter.RAZOR_DEPTH.get()
+                && Math.abs(alpha) < MATE_THRESHOLD
+                && staticEval + SearchParameter.RAZOR_MARGIN.get() * depth <= alpha) {
+            int score = quiescence(ply, alpha, alpha + 1, engine);
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score <= alpha) {
+                statistics.razorPrune();
+                return alpha;
+            }
+        }
+
+        // Null move pruning: if the position is still good enough to fail high
+        // after giving the opponent a free move, a real move will be too.
+        // Skipped in zugzwang-prone positions where passing would be an
+        // advantage.
+        if (!pvNode && !inCheck && excludedMove == 0 && depth >= NULL_MOVE_MIN_DEPTH && ply >= nullMoveMinPly
+                && movedPieceTo[ply - 1] != -1 && hasNonPawnMaterial(board) && staticEval >= beta) {
+            int reducedDepth = Math.max(0, depth - 1 - (NULL_MOVE_REDUCTION + depth / 6));
+
+            movedPieceTo[ply] = -1;
+            currentLine[ply] = 0;
+            lineExtensions[ply + 1] = lineExtensions[ply];
+            engine.makeNullMove();
+
+            int score = -negamax(reducedDepth, ply + 1, -beta, -beta + 1, engine);
+
+            engine.unmakeNullMove();
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                if (depth < NULL_MOVE_VERIFICATION_DEPTH) {
+                    statistics.nullMoveCutoff();
+                    return beta;
+                }
+
+                // At high depth, verify the cutoff with a reduced search of this
+                // node in which null moves are disabled for the next few plies.
+                int previousMinPly = nullMoveMinPly;
+                nullMoveMinPly = ply + 3 * reducedDepth / 4 + 1;
+
+                int verification = negamax(reducedDepth, ply, beta - 1, beta, engine);
+
+                nullMoveMinPly = previousMinPly;
+
+                if (stopped) {
+                    return 0;
+                }
+
+                if (verification >= beta) {
+                    statistics.nullMoveCutoff();
+                    return beta;
+                }
+            }
+        }
+
+        // ProbCut: if a capture that wins enough material beats a raised beta
+        // in a shallow search, a full-depth search would very likely beat beta.
+        int probCutBeta = beta + SearchParameter.PROBCUT_MARGIN.get();
+        int probCutDepth = Math.max(depth - PROBCUT_REDUCTION, 1);
+
+        if (!pvNode && !inCheck && excludedMove == 0 && depth >= SearchParameter.PROBCUT_DEPTH.get()
+                && Math.abs(beta) < MATE_THRESHOLD
+                && !(entry != 0 && TranspositionTable.getDepth(entry) >= probCutDepth + 1
+                        && scoreFromEntry(TranspositionTable.getScore(entry), ply) < probCutBeta)) {
+            ArrayList<Move> captures = MoveGenerator.generateLegalCaptures(board);
+            int[] captureScores = MoveOrderer.scoreCaptures(captures, board, moveScores[ply]);
+
+            for (int i = 0; i < captures.size(); i++) {
+                MoveOrderer.pickMove(captures, captureScores, i);
+                Move move = captures.get(i);
+
+                if (!StaticExchange.isAtLeast(move, board, probCutBeta - staticEval)) {
+                    continue;
+                }
+
+                movedPieceTo[ply] = SearchHeuristics.pieceTo(move, board);
+                currentLine[ply] = move.getData();
+                lineExtensions[ply + 1] = lineExtensions[ply];
+                engine.makeMove(move);
+
+                // A quiescence search first filters out captures that fail at once
+                int score = -quiescence(ply + 1, -probCutBeta, -probCutBeta + 1, engine);
+
+                if (score >= probCutBeta) {
+                    score = -negamax(probCutDepth, ply + 1, -probCutBeta, -probCutBeta + 1, engine);
+                }
+
+                engine.undoMove();
+                this.nodes += 1;
+
+                if (stopped) {
+                    return 0;
+                }
+
+                if (score >= probCutBeta) {
+                    statistics.probCut();
+                    transpositionTable.store(hash, move.getData(), probCutDepth + 1,
+                            TranspositionTable.LOWER_BOUND, scoreToEntry(score, ply));
+                    return beta;
+                }
+            }
+        }
+
+        // Without a hash move, move ordering here is poor. Either search this
+        // node less deeply, since it will be searched again next iteration with
+        // a hash move, or run a shallower search to find one.
+        if (hashMove == 0 && excludedMove == 0) {
+            if (SearchParameter.INTERNAL_ITERATIVE_DEEPENING.get() == 0) {
+                if (depth >= IIR_MIN_DEPTH) {
+                    depth--;
+                }
+            } else if (depth >= IID_MIN_DEPTH) {
+                negamax(depth - IID_REDUCTION, ply, alpha, beta, engine);
+                // The shallower search ran at this ply and left its own line
+                pvLength[ply] = ply;
+
+                if (stopped) {
+                    return 0;
+                }
+
+                entry = transpositionTable.probe(hash);
+                hashMove = TranspositionTable.getMove(entry);
+            }
+        }
+
+        ArrayList<Move> moves = MoveGenerator.generateLegalMoves(board);
 
         if (moves.isEmpty()) {
-            if (inCheck(engine.getBoard())) {
-                return -100000;
+            if (inCheck) {
+                return -MATE + ply;
             } else {
                 return 0;
             }
         }
 
-        if (engine.getBoard().getHalfmoveClock() == 100) {
+        // Singular extensions: if a reduced search without the hash move fails
+        // low against a bound below the hash move's score, the hash move is
+        // the only good move here and is searched one ply deeper.
+        int singularMove = 0;
+
+        if (excludedMove == 0 && hashMove != 0 && depth >= SINGULAR_MIN_DEPTH
+                && lineExtensions[ply] < MAX_LINE_EXTENSIONS
+                && TranspositionTable.getDepth(entry) >= depth - 3
+                && TranspositionTable.getBound(entry) != TranspositionTable.UPPER_BOUND
+                && Math.abs(TranspositionTable.getScore(entry)) < MATE_THRESHOLD) {
+            int singularBeta = TranspositionTable.getScore(entry) - SINGULAR_MARGIN * depth;
+
+            excludedMoves[ply] = hashMove;
+            int score = negamax((depth - 1) / 2, ply, singularBeta - 1, singularBeta, engine);
+            excludedMoves[ply] = 0;
+            pvLength[ply] = ply;
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score < singularBeta) {
+                singularMove = hashMove;
+            }
+        }
+
+        int previousPieceTo = movedPieceTo[ply - 1];
+        int twoPliesPieceTo = ply >= 2 ? movedPieceTo[ply - 2] : -1;
+        // While the line so far follows the last iteration's principal
+        // variation, its next move is searched first. The scores are taken
+        // after the singular search, which reuses this ply's buffers.
+        int pvMove = previousPvMove(ply);
+        int[] scores = MoveOrderer.scoreMoves(moves, board, pvMove != 0 ? pvMove : hashMove, heuristics, ply,
+                previousPieceTo, twoPliesPieceTo, moveScores[ply]);
+        Move[] quietsSearched = this.quietsSearched[ply];
+        int quietCount = 0;
+        Move[] capturesSearched = this.capturesSearched[ply];
+        int captureCount = 0;
+        Move bestMove = null;
+
+        // Futility pruning: near the leaves, quiet moves cannot lift a static
+        // evaluation this far below alpha
+        boolean futile = !pvNode && !inCheck && depth <= SearchParameter.FUTILITY_DEPTH.get()
+                && Math.abs(alpha) < MATE_THRESHOLD && staticEval + SearchParameter.FUTILITY_BASE.get()
+                        + SearchParameter.FUTILITY_MARGIN.get() * depth <= alpha;
+
+        int movesSearched = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            MoveOrderer.pickMove(moves, scores, i);
+            Move move = moves.get(i);
+            boolean quiet = MoveOrderer.isQuiet(move, board);
+
+            if (move.getData() == excludedMove) {
+                continue;
+            }
+
+            if (shouldStop()) {
+                return 0;
+            }
+
+            movedPieceTo[ply] = SearchHeuristics.pieceTo(move, board);
+            int historyScore = quiet ? heuristics.getHistory(board.isWhiteTurn(), move)
+                    + heuristics.getContinuationHistory(1, previousPieceTo, movedPieceTo[ply]) : 0;
+
+            engine.makeMove(move);
+
+            boolean givesCheck = inCheck(board);
+
+            // Shallow pruning of quiet moves. Checks and moves made while in check
+            // are always searched.
+            if (quiet && !inCheck && !givesCheck && i > 0) {
+                if (futile) {
+                    engine.undoMove();
+                    statistics.futilityPrune();
+                    continue;
+                }
+
+                // Late move pruning: once enough quiet moves have failed to raise
+                // alpha, the rest are unlikely to either
+                if (!pvNode && depth <= SearchParameter.LATE_MOVE_PRUNING_DEPTH.get()
+                        && quietCount >= SearchParameter.LATE_MOVE_PRUNING_BASE.get() + depth * depth) {
+                    engine.undoMove();
+                    statistics.lateMovePrune();
+                    continue;
+                }
+
+                // History pruning: quiet moves that have mostly failed elsewhere
+                // are skipped rather than reduced
+                if (!pvNode && depth <= SearchParameter.HISTORY_PRUNING_DEPTH.get()
+                        && historyScore < -SearchParameter.HISTORY_PRUNING_MARGIN.get() * depth) {
+                    engine.undoMove();
+                    statistics.historyPrune();
+                    continue;
+                }
+            }
+
+            int reduction = 0;
+
+            // Late move reductions: quiet moves ordered late rarely raise alpha,
+            // so they are searched to a reduced depth first
+            if (quiet && !inCheck && !givesCheck && depth >= LMR_MIN_DEPTH && i >= LMR_MIN_MOVE_INDEX) {
+                reduction = LMR_REDUCTIONS[Math.min(depth, 63)][Math.min(i, 63)];
+
+                if (pvNode) {
+                    reduction -= 1;
+                }
+
+                reduction -= historyScore / LMR_HISTORY_DIVISOR;
+                reduction = Math.max(0, Math.min(reduction, depth - 2));
+            }
+
+            // Extend checks and singular moves by one ply, within the line's
+            // extension budget
+            int extension = 0;
+
+            if (lineExtensions[ply] < MAX_LINE_EXTENSIONS) {
+                if (move.getData() == singularMove) {
+                    extension = 1;
+                    statistics.singularExtension();
+                } else if (givesCheck) {
+                    extension = 1;
+                    statistics.checkExtension();
+                }
+            }
+
+            lineExtensions[ply + 1] = lineExtensions[ply] + extension;
+            currentLine[ply] = move.getData();
+            pvLength[ply + 1] = ply + 1;
+
+            int score = searchMove(depth - 1 + extension, ply + 1, alpha, beta, movesSearched == 0, reduction,
+                    engine);
+
+            engine.undoMove();
+
+            if (stopped) {
+                return 0;
+            }
+
+            movesSearched++;
+
+            this.nodes += 1;
+
+            if (score >= beta) {
+                // Mate distance pruning can lower beta to the best possible
+                // score, so the move may still belong to the principal variation
+                if (pvNode) {
+                    updatePrincipalVariation(ply, move);
+                }
+
+                statistics.betaCutoff(i);
+                updateHeuristics(heuristics, board, move, quiet, quietsSearched, quietCount, capturesSearched,
+                        captureCount, depth, ply);
+                if (excludedMove == 0) {
+                    transpositionTable.store(hash, move.getData(), depth, TranspositionTable.LOWER_BOUND,
+                            scoreToEntry(beta, ply));
+                }
+                return beta;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                updatePrincipalVariation(ply, move);
+            }
+
+            if (quiet) {
+                quietsSearched[quietCount++] = move;
+            } else if (MoveOrderer.isCapture(move, board)) {
+                capturesSearched[captureCount++] = move;
+            }
+        }
+
+        // A search without the excluded move does not describe this position
+        if (excludedMove == 0) {
+            if (bestMove != null) {
+                transpositionTable.store(hash, bestMove.getData(), depth, TranspositionTable.EXACT,
+                        scoreToEntry(alpha, ply));
+            } else {
+                transpositionTable.store(hash, 0, depth, TranspositionTable.UPPER_BOUND, scoreToEntry(alpha, ply));
+            }
+        }
+
+        return alpha;
+    }
+
+    /**
+     * Searches the position after a move using principal variation search. The
+     * first move of a node is searched with the full window. Later moves are
+     * expected to be worse, so they are searched with a null window around alpha
+     * to prove it, and are only searched again with the full window if they fail
+     * high. A reduced move is first searched with a null window at the reduced
+     * depth, and is searched again at full depth if it raises alpha.
+     *
+     * @param depth     the remaining depth after the move
+     * @param ply       the distance from the root after the move
+     * @param alpha     the alpha value of the parent node
+     * @param beta      the beta value of the parent node
+     * @param firstMove true if this is the first move searched in the parent node
+     * @param reduction the number of plies to reduce the search by, or 0
+     * @param engine    the chess engine with the move already made
+     * @return the score of the move from the perspective of the parent node
+     */
+    private int searchMove(int depth, int ply, int alpha, int beta, boolean firstMove, int reduction,
+            Engine engine) {
+        if (firstMove) {
+            return -negamax(depth, ply, -beta, -alpha, engine);
+        }
+
+        if (reduction > 0) {
+            int score = -negamax(depth - reduction, ply, -alpha - 1, -alpha, engine);
+
+            if (score <= alpha) {
+                return score;
+            }
+        }
+
+        int score = -negamax(depth, ply, -alpha - 1, -alpha, engine);
+
+        if (score > alpha && score < beta) {
+            score = -negamax(depth, ply, -beta, -alpha, engine);
+        }
+
+        return score;
+    }
+
+    /**
+     * Makes a move that raised alpha the start of the principal variation from
+     * its ply, followed by the principal variation of the position after it.
+     *
+     * @param ply  the distance of the node from the root
+     * @param move the move that raised alpha
+     */
+    private void updatePrincipalVariation(int ply, Move move) {
+        pvTable[ply][ply] = move.getData();
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    /**
+     * Gets the move of the last iteration's principal variation at a ply, if the
+     * moves made to reach the ply follow that principal variation.
+     *
+     * @param ply the distance of the node from the root
+     * @return the encoded principal variation move, or 0 if the line has left
+     *         the principal variation or it is too short
+     */
+    private int previousPvMove(int ply) {
+        if (ply >= previousPv.length) {
             return 0;
         }
 
-        for (Move move : moves) {
-            if (System.currentTimeMillis() >= endTime) {
-                return 12345;
+        for (int i = 0; i < ply; i++) {
+            if (currentLine[i] != previousPv[i]) {
+                return 0;
+            }
+        }
+
+        return previousPv[ply];
+    }
+
+    /**
+     * Updates the move ordering tables after a beta cutoff.
+     * <p>
+     * A quiet cutoff move becomes the killer for its ply and the countermove to
+     * the previous move, and its history and continuation history scores are
+     * raised, while the quiet moves searched before it are lowered. A capture
+     * that causes a cutoff has its capture history raised. Either way, the
+     * captures searched before the cutoff move have their capture history
+     * lowered.
+     *
+     * @param heuristics       the move ordering tables to update
+     * @param board            the board the moves were played on
+     * @param cutoffMove       the move that caused the cutoff
+     * @param quiet            true if the cutoff move is a quiet move
+     * @param quietsSearched   the quiet moves searched before the cutoff move
+     * @param quietCount       the number of quiet moves searched before it
+     * @param capturesSearched the captures searched before the cutoff move
+     * @param captureCount     the number of captures searched before it
+     * @param depth            the remaining depth of the node
+     * @param ply              the distance of the node from the root
+     */
+    private void updateHeuristics(SearchHeuristics heuristics, Board board, Move cutoffMove, boolean quiet,
+            Move[] quietsSearched, int quietCount, Move[] capturesSearched, int captureCount, int depth, int ply) {
+        int bonus = SearchHeuristics.historyBonus(depth);
+
+        if (quiet) {
+            int previousPieceTo = movedPieceTo[ply - 1];
+            int twoPliesPieceTo = ply >= 2 ? movedPieceTo[ply - 2] : -1;
+
+            heuristics.updateKillers(ply, cutoffMove);
+            heuristics.updateCounterMove(previousPieceTo, cutoffMove);
+            updateQuietHistory(heuristics, board, cutoffMove, bonus, previousPieceTo, twoPliesPieceTo);
+
+            for (int i = 0; i < quietCount; i++) {
+                updateQuietHistory(heuristics, board, quietsSearched[i], -bonus, previousPieceTo, twoPliesPieceTo);
+            }
+        } else if (MoveOrderer.isCapture(cutoffMove, board)) {
+            heuristics.updateCaptureHistory(SearchHeuristics.pieceTo(cutoffMove, board),
+                    SearchHeuristics.capturedType(cutoffMove, board), bonus);
+        }
+
+        for (int i = 0; i < captureCount; i++) {
+            heuristics.updateCaptureHistory(SearchHeuristics.pieceTo(capturesSearched[i], board),
+                    SearchHeuristics.capturedType(capturesSearched[i], board), -bonus);
+        }
+    }
+
+    /**
+     * Adjusts the history and both continuation history scores of a quiet move.
+     *
+     * @param heuristics      the move ordering tables to update
+     * @param board           the board the move was played on
+     * @param move            the quiet move
+     * @param bonus           the amount to adjust the scores by
+     * @param previousPieceTo the (piece, destination) index of the previous move
+     * @param twoPliesPieceTo the (piece, destination) index of the move before
+     *                        that
+     */
+    private void updateQuietHistory(SearchHeuristics heuristics, Board board, Move move, int bonus,
+            int previousPieceTo, int twoPliesPieceTo) {
+        int pieceTo = SearchHeuristics.pieceTo(move, board);
+
+        heuristics.updateHistory(board.isWhiteTurn(), move, bonus);
+        heuristics.updateContinuationHistory(1, previousPieceTo, pieceTo, bonus);
+        heuristics.updateContinuationHistory(2, twoPliesPieceTo, pieceTo, bonus);
+    }
+
+    /**
+     * Searches captures and promotions until the position is quiet, so that the
+     * position is not evaluated in the middle of an exchange.
+     * <p>
+     * The side to move can stand pat on the static evaluation instead of making
+     * a capture, unless it is in check, in which case every evasion is searched.
+     * Captures are tried in MVV-LVA order. Captures that cannot raise alpha
+     * even after winning the captured piece are skipped (delta pruning), as are
+     * captures that lose material according to static exchange evaluation.
+     *
+     * @param ply    the distance from the root (number of half-moves)
+     * @param alpha  the alpha value for alpha-beta pruning
+     * @param beta   the beta value for alpha-beta pruning
+     * @param engine the chess engine containing the current game state
+     * @return the evaluation score from the perspective of the current player, or
+     *         0 if the search was stopped
+     */
+    public int quiescence(int ply, int alpha, int beta, Engine engine) {
+        if (stopped) {
+            return 0;
+        }
+
+        statistics.quiescenceNode();
+
+        Board board = engine.getBoard();
+        boolean inCheck = inCheck(board);
+        int standPat = 0;
+        ArrayList<Move> moves;
+
+        if (inCheck) {
+            moves = MoveGenerator.generateLegalMoves(board);
+
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+        } else {
+            standPat = Evaluate.board(board);
+
+            if (standPat >= beta) {
+                return beta;
+            }
+
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+
+            moves = MoveGenerator.generateLegalCaptures(board);
+        }
+
+        int[] scores = MoveOrderer.scoreCaptures(moves, board, moveScores[ply]);
+
+        for (int i = 0; i < moves.size(); i++) {
+            MoveOrderer.pickMove(moves, scores, i);
+            Move move = moves.get(i);
+
+            if (!inCheck) {
+                // Delta pruning: even winning the captured piece for free, plus a
+                // margin for positional swings, would not raise alpha
+                if (move.getSpecialMove() != Move.QUEEN_PROMOTION
+                        && standPat + MoveOrderer.getCapturedValue(move, board)
+                                + SearchParameter.DELTA_MARGIN.get() <= alpha) {
+                    statistics.deltaPrune();
+                    continue;
+                }
+
+                // SEE pruning: captures that lose material in the exchange are
+                // not worth searching
+                if (!StaticExchange.isAtLeast(move, board, 0)) {
+                    statistics.seePrune();
+                    continue;
+                }
             }
 
             engine.makeMove(move);
 
-            int score = -negamax(depth - 1, -beta, -alpha, endTime, engine);
+            int score = -quiescence(ply + 1, -beta, -alpha, engine);
 
             engine.undoMove();
 
@@ -151,6 +1215,23 @@ public class Search {
         return alpha;
     }
 
+    /**
+     * Determines if the current player has any pieces other than pawns and the
+     * king. Without them, zugzwang is common and null move pruning is unsafe.
+     *
+     * @param board the chess board to analyse
+     * @return true if the current player has a knight, bishop, rook or queen
+     */
+    private boolean hasNonPawnMaterial(Board board) {
+        if (board.isWhiteTurn()) {
+            return (board.getBitboard(Piece.WHITE_KNIGHT) | board.getBitboard(Piece.WHITE_BISHOP)
+                    | board.getBitboard(Piece.WHITE_ROOK) | board.getBitboard(Piece.WHITE_QUEEN)) != 0;
+        }
+
+        return (board.getBitboard(Piece.BLACK_KNIGHT) | board.getBitboard(Piece.BLACK_BISHOP)
+                | board.getBitboard(Piece.BLACK_ROOK) | board.getBitboard(Piece.BLACK_QUEEN)) != 0;
+    }
+
     /**
      * Determines if the current player is in check.
      *
@@ -165,6 +1246,184 @@ public class Search {
         return MoveGenerator.isSquareAttacked(kingSquare, board);
     }
 
+    /**
+     * Checks whether the search should stop. The stop flag is read every time,
+     * but the clock is only read every {@link #TIME_CHECK_NODES} nodes, since
+     * reading it at every node is a measurable cost.
+     *
+     * @return true if the search should stop
+     */
+    private boolean shouldStop() {
+        if (stopped) {
+            return true;
+        }
+
+        if (nodes >= nextTimeCheck) {
+            nextTimeCheck = nodes + TIME_CHECK_NODES;
+            return isOutOfTime();
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads the clock and raises the stop flag if the deadline has passed.
+     *
+     * @return true if the search should stop
+     */
+    private boolean isOutOfTime() {
+        if (!stopped && System.nanoTime() - deadline >= 0) {
+            stopped = true;
+        }
+
+        return stopped;
+    }
+
+    /**
+     * Converts the epoch time at which the search should end to a deadline on
+     * the {@link System#nanoTime()} clock.
+     *
+     * @param endTime the epoch time in milliseconds at which the search should
+     *                terminate
+     */
+    private void setDeadline(long endTime) {
+        long remaining = endTime - System.currentTimeMillis();
+
+        // Far enough away to never be reached, without overflowing
+        remaining = Math.min(remaining, Long.MAX_VALUE / 4_000_000);
+        deadline = System.nanoTime() + Math.max(remaining, 0) * 1_000_000;
+        nextTimeCheck = 0;
+    }
+
+    /**
+     * Converts a score to be stored in the transposition table. Mate scores are
+     * stored relative to the node rather than the root, so that they stay
+     * correct when the position is reached at a different ply.
+     *
+     * @param score the score relative to the root
+     * @param ply   the distance of the node from the root
+     * @return the score relative to the node
+     */
+    static int scoreToEntry(int score, int ply) {
+        if (score >= MATE_THRESHOLD) {
+            return score + ply;
+        }
+        if (score <= -MATE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a score read from the transposition table back to be relative to
+     * the root.
+     *
+     * @param score the score relative to the node
+     * @param ply   the distance of the node from the root
+     * @return the score relative to the root
+     */
+    static int scoreFromEntry(int score, int ply) {
+        if (score >= MATE_THRESHOLD) {
+            return score - ply;
+        }
+        if (score <= -MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a mate score into the number of moves until mate, as used by the
+     * UCI 'score mate' output.
+     *
+     * @param score a score at or beyond {@link #MATE_THRESHOLD}
+     * @return the number of moves to mate, negative if the side to move is
+     *         being mated
+     */
+    public static int mateInMoves(int score) {
+        if (score > 0) {
+            return (MATE - score + 1) / 2;
+        }
+        return -(MATE + score) / 2;
+    }
+
+    /**
+     * Determines if a score is a mate score.
+     *
+     * @param score the score to check
+     * @return true if the score is a forced mate for either side
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_THRESHOLD;
+    }
+
+    /**
+     * Gets the principal variation found by the last root search.
+     *
+     * @return the encoded moves of the principal variation, starting at the root
+     */
+    public int[] getPrincipalVariation() {
+        return Arrays.copyOf(pvTable[0], pvLength[0]);
+    }
+
+    /**
+     * Clears the results of the last search so that this search can be reused
+     * for another. The search stack, principal variation table and the
+     * context are kept.
+     */
+    public void reset() {
+        nodes = 0;
+        time = 0;
+        score = 0;
+        statistics.reset();
+        nullMoveMinPly = 0;
+        previousPv = new int[0];
+        completedDepth = 0;
+        bestMove = null;
+        bestScore = 0;
+        improvedByInterruptedIteration = false;
+        interruptedBestMove = null;
+        stopped = false;
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Raises the stop flag from another thread. The search returns as soon as
+     * each node sees it, and the result of the last completed iteration
+     * stands.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public Move getBestMove() {
+        return bestMove;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Determines if the best move was found by an iteration that was stopped
+     * before it completed, after the move had beaten the completed iteration's
+     * best move. Such a move is better informed than any move of the completed
+     * depth.
+     *
+     * @return true if the best move comes from a stopped iteration
+     */
+    public boolean isImprovedByInterruptedIteration() {
+        return improvedByInterruptedIteration;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
     public long getNodes() {
         return nodes;
     }
@@ -176,4 +1435,8 @@ public class Search {
     public int getScore() {
         return score;
     }
+
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.github.jamesh321.crook;
+
+/**
+ * The state a search keeps between iterations and between moves of a game: the
+ * transposition table, the move ordering tables and the per-ply search stack.
+ * <p>
+ * One context lasts for a whole game and is reused by every 'go' command, so
+ * that nothing learned in one search has to be relearned in the next. It is
+ * cleared when a new game starts.
+ */
+public class SearchContext {
+
+    /**
+     * Room for every legal move of any position, of which there are at most
+     * 218.
+     */
+    public static final int MAX_MOVES = 256;
+
+    /**
+     * Room for every ply of the main search and of the quiescence search below
+     * it. A quiescence line is made of captures and promotions, each of which
+     * can be followed by at most one check evasion, so it is much shorter than
+     * {@link Search#MAX_PLY}.
+     */
+    private static final int STACK_SIZE = 2 * Search.MAX_PLY + 1;
+
+    private final TranspositionTable transpositionTable;
+    private final SearchHeuristics searchHeuristics;
+
+    /**
+     * The (piece, destination) index of the move made at each ply, or -1 if
+     * there is none. Used to index the countermove and continuation history
+     * tables.
+     */
+    private final int[] movedPieceTo = new int[Search.MAX_PLY + 1];
+
+    /**
+     * The number of plies the line leading to each ply has been extended by.
+     */
+    private final int[] lineExtensions = new int[Search.MAX_PLY + 1];
+
+    /**
+     * The move to leave out at each ply during a singular extension search, or 0
+     * if there is none.
+     */
+    private final int[] excludedMoves = new int[Search.MAX_PLY + 1];
+
+    /**
+     * The move ordering scores of the moves at each ply, so that no node has to
+     * allocate its own.
+     */
+    private final int[][] moveScores = new int[STACK_SIZE][MAX_MOVES];
+
+    /**
+     * The quiet moves and captures searched so far at each ply, which have their
+     * history lowered when a later move causes a cutoff.
+     */
+    private final Move[][] quietsSearched = new Move[Search.MAX_PLY + 1][MAX_MOVES];
+    private final Move[][] capturesSearched = new Move[Search.MAX_PLY + 1][MAX_MOVES];
+
+    /**
+     * Constructs a context with a transposition table of the default size.
+     */
+    public SearchContext() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * Constructs a context that uses the given transposition table.
+     *
+     * @param transpositionTable the transposition table to use
+     */
+    public SearchContext(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+        this.searchHeuristics = new SearchHeuristics();
+    }
+
+    /**
+     * Prepares the context for a new search in the same game: entries from
+     * earlier searches are aged in the transposition table and the history
+     * scores are scaled down.
+     */
+    public void newSearch() {
+        transpositionTable.newSearch();
+        searchHeuristics.age();
+    }
+
+    /**
+     * Forgets everything learned in the current game.
+     */
+    public void clear() {
+        transpositionTable.clear();
+        searchHeuristics.clear();
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    public SearchHeuristics getSearchHeuristics() {
+        return searchHeuristics;
+    }
+
+    public int[] getMovedPieceTo() {
+        return movedPieceTo;
+    }
+
+    public int[] getLineExtensions() {
+        return lineExtensions;
+    }
+
+    public int[] getExcludedMoves() {
+        return excludedMoves;
+    }
+
+    public int[][] getMoveScores() {
+        return moveScores;
+    }
+
+    public Move[][] getQuietsSearched() {
+        return quietsSearched;
+    }
+
+    public Move[][] getCapturesSearched() {
+        return capturesSearched;
+    }
+}
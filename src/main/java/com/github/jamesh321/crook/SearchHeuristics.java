@@ -0,0 +1,268 @@
+package com.github.jamesh321.crook;
+
+import java.util.Arrays;
+
+/**
+ * Move ordering information learned during a search, kept between iterations
+ * and between moves so that later searches start with good ordering.
+ * <p>
+ * Killer moves are the last two quiet moves that caused a beta cutoff at each
+ * ply. They are often refutations of sibling positions as well.
+ * <p>
+ * The history table scores each quiet move by side to move, source square and
+ * destination square, based on how often it has caused cutoffs. Updates use
+ * history gravity: each update is scaled down as the score approaches
+ * {@value #MAX_HISTORY}, so scores stay bounded and recent results outweigh old
+ * ones.
+ * <p>
+ * Some tables also depend on the moves that led to the position. The
+ * countermove table remembers the quiet move that refuted each previous move,
+ * indexed by the piece that moved and its destination square. The continuation
+ * histories score quiet moves by the move one ply and two plies earlier, and
+ * the capture history scores captures by the moving piece, destination square
+ * and captured piece type. These tables are stored as flat {@code short[]}
+ * arrays to keep them small.
+ */
+public class SearchHeuristics {
+
+    /**
+     * The largest absolute value a history score can reach.
+     */
+    public static final int MAX_HISTORY = 16384;
+
+    /**
+     * The number of distinct (piece, destination square) pairs.
+     */
+    public static final int PIECE_TO_SIZE = 12 * 64;
+
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[] history = new int[2 * 64 * 64];
+    private final int[] counterMoves = new int[PIECE_TO_SIZE];
+    private final short[][] continuationHistory = new short[2][PIECE_TO_SIZE * PIECE_TO_SIZE];
+    private final short[] captureHistory = new short[PIECE_TO_SIZE * 6];
+
+    /**
+     * Gets a killer move for a ply.
+     *
+     * @param ply  the distance from the root
+     * @param slot 0 for the most recent killer, 1 for the older one
+     * @return the encoded killer move, or 0 if there is none
+     */
+    public int getKiller(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff as the most recent killer
+     * for its ply, moving the previous killer to the second slot.
+     *
+     * @param ply  the distance from the root
+     * @param move the move that caused the cutoff
+     */
+    public void updateKillers(int ply, Move move) {
+        if (killers[ply][0] != move.getData()) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move.getData();
+        }
+    }
+
+    /**
+     * Gets the history score of a quiet move.
+     *
+     * @param whiteTurn true if white is making the move
+     * @param move      the move to score
+     * @return the history score, between -{@value #MAX_HISTORY} and
+     *         {@value #MAX_HISTORY}
+     */
+    public int getHistory(boolean whiteTurn, Move move) {
+        return history[historyIndex(whiteTurn, move)];
+    }
+
+    /**
+     * Adjusts the history score of a quiet move using history gravity.
+     *
+     * @param whiteTurn true if white is making the move
+     * @param move      the move to update
+     * @param bonus     positive if the move caused a cutoff, negative if it was
+     *                  searched before the move that did
+     */
+    public void updateHistory(boolean whiteTurn, Move move, int bonus) {
+        int index = historyIndex(whiteTurn, move);
+        history[index] = gravity(history[index], bonus);
+    }
+
+    /**
+     * Gets the quiet move that last refuted the previous move.
+     *
+     * @param previousPieceTo the (piece, destination) index of the previous move,
+     *                        or -1 if there is none
+     * @return the encoded countermove, or 0 if there is none
+     */
+    public int getCounterMove(int previousPieceTo) {
+        return previousPieceTo == -1 ? 0 : counterMoves[previousPieceTo];
+    }
+
+    /**
+     * Records the quiet move that refuted the previous move.
+     *
+     * @param previousPieceTo the (piece, destination) index of the previous move,
+     *                        or -1 if there is none
+     * @param move            the quiet move that caused the cutoff
+     */
+    public void updateCounterMove(int previousPieceTo, Move move) {
+        if (previousPieceTo != -1) {
+            counterMoves[previousPieceTo] = move.getData();
+        }
+    }
+
+    /**
+     * Gets the continuation history score of a quiet move.
+     *
+     * @param plies           1 for the table indexed by the previous move, 2 for
+     *                        the table indexed by the move before that
+     * @param previousPieceTo the (piece, destination) index of the earlier move,
+     *                        or -1 if there is none
+     * @param pieceTo         the (piece, destination) index of the move to score
+     * @return the continuation history score, or 0 if there is no earlier move
+     */
+    public int getContinuationHistory(int plies, int previousPieceTo, int pieceTo) {
+        return previousPieceTo == -1 ? 0
+                : continuationHistory[plies - 1][previousPieceTo * PIECE_TO_SIZE + pieceTo];
+    }
+
+    /**
+     * Adjusts the continuation history score of a quiet move using history
+     * gravity.
+     *
+     * @param plies           1 for the table indexed by the previous move, 2 for
+     *                        the table indexed by the move before that
+     * @param previousPieceTo the (piece, destination) index of the earlier move,
+     *                        or -1 if there is none
+     * @param pieceTo         the (piece, destination) index of the move to update
+     * @param bonus           positive if the move caused a cutoff, negative
+     *                        otherwise
+     */
+    public void updateContinuationHistory(int plies, int previousPieceTo, int pieceTo, int bonus) {
+        if (previousPieceTo != -1) {
+            short[] table = continuationHistory[plies - 1];
+            int index = previousPieceTo * PIECE_TO_SIZE + pieceTo;
+            table[index] = (short) gravity(table[index], bonus);
+        }
+    }
+
+    /**
+     * Gets the capture history score of a capture.
+     *
+     * @param pieceTo      the (piece, destination) index of the capture
+     * @param capturedType the type of the captured piece (0 for pawn to 5 for
+     *                     king)
+     * @return the capture history score
+     */
+    public int getCaptureHistory(int pieceTo, int capturedType) {
+        return captureHistory[pieceTo * 6 + capturedType];
+    }
+
+    /**
+     * Adjusts the capture history score of a capture using history gravity.
+     *
+     * @param pieceTo      the (piece, destination) index of the capture
+     * @param capturedType the type of the captured piece (0 for pawn to 5 for
+     *                     king)
+     * @param bonus        positive if the capture caused a cutoff, negative
+     *                     otherwise
+     */
+    public void updateCaptureHistory(int pieceTo, int capturedType, int bonus) {
+        int index = pieceTo * 6 + capturedType;
+        captureHistory[index] = (short) gravity(captureHistory[index], bonus);
+    }
+
+    /**
+     * Gets the (piece, destination) index of a move, used to index the
+     * countermove and continuation history tables.
+     *
+     * @param move  the move
+     * @param board the board before the move is made
+     * @return the piece index times 64 plus the destination square
+     */
+    public static int pieceTo(Move move, Board board) {
+        return board.getPieceAtSquare(move.getFrom()).getIndex() * 64 + move.getTo();
+    }
+
+    /**
+     * Gets the type of the piece a capture takes.
+     *
+     * @param move  the capture
+     * @param board the board before the move is made
+     * @return the type of the captured piece (0 for pawn to 5 for king)
+     */
+    public static int capturedType(Move move, Board board) {
+        if (move.getSpecialMove() == Move.EN_PASSANT) {
+            return 0;
+        }
+
+        Piece captured = board.getPieceAtSquare(move.getTo());
+        return captured == null ? 0 : captured.getIndex() % 6;
+    }
+
+    /**
+     * Gets the history bonus for a cutoff at the given depth. Deeper cutoffs are
+     * more reliable, so they earn a larger bonus.
+     *
+     * @param depth the remaining depth of the node
+     * @return the bonus to apply to the history score
+     */
+    public static int historyBonus(int depth) {
+        return Math.min(16 * depth * depth, 1200);
+    }
+
+    /**
+     * Prepares the tables for the next move of the game. Killers are specific to
+     * the positions of the last search, so they are cleared, and history scores
+     * are halved so that newer results count for more. Countermoves are kept, as
+     * they are replaced whenever a better refutation is found.
+     */
+    public void age() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, 0);
+        }
+
+        for (int i = 0; i < history.length; i++) {
+            history[i] /= 2;
+        }
+
+        for (short[] table : continuationHistory) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] /= 2;
+            }
+        }
+
+        for (int i = 0; i < captureHistory.length; i++) {
+            captureHistory[i] /= 2;
+        }
+    }
+
+    /**
+     * Removes everything that has been learned, for the start of a new game.
+     */
+    public void clear() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, 0);
+        }
+
+        Arrays.fill(history, 0);
+        Arrays.fill(counterMoves, 0);
+        Arrays.fill(captureHistory, (short) 0);
+
+        for (short[] table : continuationHistory) {
+            Arrays.fill(table, (short) 0);
+        }
+    }
+
+    private static int gravity(int value, int bonus) {
+        return value + bonus - value * Math.abs(bonus) / MAX_HISTORY;
+    }
+
+    private static int historyIndex(boolean whiteTurn, Move move) {
+        return (whiteTurn ? 0 : 64 * 64) + move.getFrom() * 64 + move.getTo();
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.jamesh321.crook;
+
+/**
+ * The result of one iteration of iterative deepening, or of an aspiration
+ * window search within it that failed high or low.
+ */
+public class SearchInfo {
+    private final int depth;
+    private final Move bestMove;
+    private final int score;
+    private final int bound;
+    private final long nodes;
+    private final long time;
+    private final int[] principalVariation;
+    private final SearchStatistics statistics;
+
+    /**
+     * Constructs the result of a search iteration.
+     *
+     * @param depth              the depth that was searched
+     * @param bestMove           the best move found, or null if the search
+     *                           failed low
+     * @param score              the score of the position from the side to
+     *                           move's point of view
+     * @param bound              {@link TranspositionTable#EXACT} if the score is
+     *                           exact, or {@link TranspositionTable#LOWER_BOUND}
+     *                           or {@link TranspositionTable#UPPER_BOUND} if it
+     *                           is a bound
+     * @param nodes              the nodes searched since the search started
+     * @param time               the milliseconds since the search started
+     * @param principalVariation the encoded moves of the expected line, starting
+     *                           with the best move, or empty if the search
+     *                           failed low
+     * @param statistics         the search counters
+     */
+    public SearchInfo(int depth, Move bestMove, int score, int bound, long nodes, long time,
+            int[] principalVariation, SearchStatistics statistics) {
+        this.depth = depth;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.bound = bound;
+        this.nodes = nodes;
+        this.time = time;
+        this.principalVariation = principalVariation;
+        this.statistics = statistics;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Move getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getBound() {
+        return bound;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Calculates the search speed.
+     *
+     * @return the nodes searched per second
+     */
+    public long getNps() {
+        return nodes * 1000 / Math.max(1, time);
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+}
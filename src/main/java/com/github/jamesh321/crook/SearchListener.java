@@ -0,0 +1,17 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Receives the progress of a search as iterative deepening completes each
+ * iteration.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * Called after each iteration, and after each aspiration window search that
+     * fails high or low.
+     *
+     * @param info the result of the iteration
+     */
+    void onIteration(SearchInfo info);
+}
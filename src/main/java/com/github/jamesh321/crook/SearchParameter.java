@@ -0,0 +1,101 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Tunable search parameters. Each parameter is exposed as a UCI spin option so
+ * that it can be tuned without changing the code.
+ */
+public enum SearchParameter {
+    REVERSE_FUTILITY_MARGIN("RFPMargin", 80, 0, 500),
+    REVERSE_FUTILITY_DEPTH("RFPDepth", 7, 0, 20),
+    FUTILITY_BASE("FutilityBase", 80, 0, 1000),
+    FUTILITY_MARGIN("FutilityMargin", 90, 0, 500),
+    FUTILITY_DEPTH("FutilityDepth", 6, 0, 20),
+    RAZOR_MARGIN("RazorMargin", 250, 0, 1000),
+    RAZOR_DEPTH("RazorDepth", 2, 0, 10),
+    LATE_MOVE_PRUNING_BASE("LMPBase", 3, 0, 50),
+    LATE_MOVE_PRUNING_DEPTH("LMPDepth", 6, 0, 20),
+    HISTORY_PRUNING_MARGIN("HistoryPruningMargin", 2048, 0, 16384),
+    HISTORY_PRUNING_DEPTH("HistoryPruningDepth", 3, 0, 20),
+    PROBCUT_MARGIN("ProbCutMargin", 200, 0, 1000),
+    DELTA_MARGIN("DeltaMargin", 200, 0, 1000),
+    /**
+     * The shallowest depth at which ProbCut is tried. The verification search is
+     * {@link Search#PROBCUT_REDUCTION} plies shallower, so it must leave at
+     * least one ply.
+     */
+    PROBCUT_DEPTH("ProbCutDepth", 5, Search.PROBCUT_REDUCTION + 1, 20),
+    /**
+     * How nodes without a hash move are handled: 0 reduces their depth by one
+     * ply (internal iterative reductions), 1 runs a shallower search first to
+     * find a move to try first (internal iterative deepening).
+     */
+    INTERNAL_ITERATIVE_DEEPENING("IIDMode", 0, 0, 1);
+
+    private final String optionName;
+    private final int defaultValue;
+    private final int min;
+    private final int max;
+    private volatile int value;
+
+    SearchParameter(String optionName, int defaultValue, int min, int max) {
+        this.optionName = optionName;
+        this.defaultValue = defaultValue;
+        this.min = min;
+        this.max = max;
+        this.value = defaultValue;
+    }
+
+    /**
+     * Gets the current value of the parameter.
+     *
+     * @return the value of the parameter
+     */
+    public int get() {
+        return value;
+    }
+
+    /**
+     * Sets the value of the parameter, clamped to its range.
+     *
+     * @param value the new value
+     */
+    public void set(int value) {
+        this.value = Math.max(min, Math.min(value, max));
+    }
+
+    /**
+     * Restores the default value of the parameter.
+     */
+    public void reset() {
+        this.value = defaultValue;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Formats the parameter as a UCI 'option' line.
+     *
+     * @return the option declaration sent in response to the 'uci' command
+     */
+    public String toUciOption() {
+        return String.format("option name %s type spin default %d min %d max %d", optionName, defaultValue, min,
+                max);
+    }
+
+    /**
+     * Gets the parameter with the given UCI option name, ignoring case.
+     *
+     * @param optionName the name of the option
+     * @return the parameter, or null if no parameter has that name
+     */
+    public static SearchParameter fromOptionName(String optionName) {
+        for (SearchParameter parameter : SearchParameter.values()) {
+            if (parameter.optionName.equalsIgnoreCase(optionName)) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+}
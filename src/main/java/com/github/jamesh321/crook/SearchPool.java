@@ -0,0 +1,444 @@
+package com.github.jamesh321.crook;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.Consumer;
+
+/**
+ * Runs the search on one or more threads using Lazy SMP.
+ * <p>
+ * Every thread searches the same root position with iterative deepening, on
+ * its own copy of the board and with its own move ordering tables and search
+ * stack. The threads share only the transposition table, through which each
+ * benefits from what the others have searched. Helper threads skip some depths
+ * so that they spread out over the current and next iterations.
+ * <p>
+ * The main thread reports its progress. Once it finishes, the helpers are
+ * stopped and the best move is taken from the thread that completed the
+ * deepest iteration, or the highest score among threads at the same depth.
+ * <p>
+ * The threads live as long as the pool. Between searches they are parked on a
+ * start barrier, with their boards, move ordering tables and per-ply search
+ * stacks already allocated, so starting a search only has to copy the position
+ * and release the barrier. The stacks hold the move scores and searched moves
+ * of each ply; only the move lists themselves are still generated at each
+ * node.
+ */
+public class SearchPool {
+
+    /**
+     * The most threads that can search at once.
+     */
+    public static final int MAX_THREADS = 256;
+
+    private final Engine engine;
+
+    private Worker[] workers = new Worker[0];
+
+    /**
+     * Releases the workers to start a search. Its parties are every worker and
+     * the thread that starts the search.
+     */
+    private CyclicBarrier startBarrier;
+
+    /**
+     * Holds the main worker until every helper has finished searching.
+     */
+    private CyclicBarrier finishBarrier;
+
+    // The current search, published to the workers by the start barrier
+    private int maxDepth;
+    private TimeManager timeManager;
+    private SearchListener listener;
+    private Consumer<Move> onBestMove;
+    private boolean shuttingDown;
+
+    /**
+     * The System.nanoTime at which the last search was requested.
+     */
+    private long startRequestTime;
+
+    /**
+     * The nanoseconds from requesting the last search to the main worker
+     * starting it.
+     */
+    private volatile long startLatency;
+
+    /**
+     * The System.nanoTime at which the current search was asked to stop, or 0
+     * if it has not been.
+     */
+    private volatile long stopRequestTime;
+
+    /**
+     * The nanoseconds from asking the last search to stop to it reporting its
+     * best move, or -1 if it finished on its own.
+     */
+    private volatile long stopLatency = -1;
+
+    private boolean searching = false;
+
+    /**
+     * The number of searches started, and the number that have reported their
+     * best move. A search stops counting as running before its best move is
+     * reported, so these tell {@link #waitForSearch} when the report is done.
+     */
+    private long searchesStarted = 0;
+    private long searchesReported = 0;
+
+    /**
+     * The best move of the last search, or null if there were no legal moves.
+     */
+    private Move bestMove;
+
+    /**
+     * Constructs a single-threaded pool that searches the engine's position.
+     *
+     * @param engine the engine whose position and search context the main
+     *               thread uses
+     */
+    public SearchPool(Engine engine) {
+        this.engine = engine;
+        initialiseTables();
+        setThreads(1);
+    }
+
+    /**
+     * Builds the static move generation, material and cuckoo tables, which
+     * would otherwise be built during the first search and take a large part
+     * of a short time control.
+     */
+    private void initialiseTables() {
+        Board board = new Board(engine.getBoard());
+
+        MoveGenerator.generateLegalMoves(board);
+        Material.probe(board);
+        Cuckoo.find(0L);
+        Evaluate.board(board);
+    }
+
+    /**
+     * Sets the number of threads, including the main thread, replacing the
+     * existing threads. Must not be called while a search is running.
+     *
+     * @param threads the number of threads, clamped to between 1 and
+     *                {@link #MAX_THREADS}
+     */
+    public void setThreads(int threads) {
+        threads = Math.max(1, Math.min(threads, MAX_THREADS));
+
+        shutdown();
+
+        shuttingDown = false;
+        startBarrier = new CyclicBarrier(threads + 1);
+        finishBarrier = new CyclicBarrier(threads);
+        workers = new Worker[threads];
+
+        workers[0] = new Worker(0, engine);
+        for (int i = 1; i < threads; i++) {
+            workers[i] = new Worker(i, new Engine(engine, new SearchContext(engine.getTranspositionTable())));
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Ends every worker thread and waits for them to finish. Must not be called
+     * while a search is running.
+     */
+    public void shutdown() {
+        if (workers.length == 0) {
+            return;
+        }
+
+        shuttingDown = true;
+        await(startBarrier);
+
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        workers = new Worker[0];
+    }
+
+    /**
+     * Prepares every thread's search state for a new search in the same game.
+     */
+    public void newSearch() {
+        engine.getSearchContext().newSearch();
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].engine.getSearchHeuristics().age();
+        }
+    }
+
+    /**
+     * Forgets everything learned in the current game, on every thread.
+     */
+    public void clear() {
+        engine.getSearchContext().clear();
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].engine.getSearchHeuristics().clear();
+        }
+    }
+
+    /**
+     * Starts searching the engine's position on every thread and returns at
+     * once.
+     *
+     * @param maxDepth    the deepest iteration to search
+     * @param timeManager decides when the main thread stops searching, after
+     *                    which the helpers are stopped
+     * @param listener    receives the result of each iteration of the main
+     *                    thread, with the nodes of every thread
+     * @param onBestMove  receives the best move once the search has finished,
+     *                    or null if there are no legal moves
+     */
+    public void start(int maxDepth, TimeManager timeManager, SearchListener listener, Consumer<Move> onBestMove) {
+        this.startRequestTime = System.nanoTime();
+        this.maxDepth = maxDepth;
+        this.timeManager = timeManager;
+        this.listener = listener;
+        this.onBestMove = onBestMove;
+        this.stopRequestTime = 0;
+
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].engine.copyPosition(engine);
+        }
+        for (Worker worker : workers) {
+            worker.search.reset();
+        }
+
+        synchronized (this) {
+            searching = true;
+            searchesStarted++;
+        }
+
+        await(startBarrier);
+    }
+
+    /**
+     * Searches the engine's position on every thread and waits for the result.
+     *
+     * @param maxDepth    the deepest iteration to search
+     * @param timeManager decides when the search should terminate
+     * @param listener    receives the result of each iteration of the main
+     *                    thread
+     * @return the best move, or null if there are no legal moves
+     */
+    public Move search(int maxDepth, TimeManager timeManager, SearchListener listener) {
+        start(maxDepth, timeManager, listener, move -> {
+        });
+        waitForSearch();
+
+        synchronized (this) {
+            return bestMove;
+        }
+    }
+
+    /**
+     * Stops the current search. The best move found so far is still reported.
+     */
+    public void stop() {
+        stopRequestTime = System.nanoTime();
+
+        for (Worker worker : workers) {
+            worker.search.stop();
+        }
+    }
+
+    /**
+     * Determines if a search is still running.
+     *
+     * @return true if the search has not finished
+     */
+    public synchronized boolean isSearching() {
+        return searching;
+    }
+
+    /**
+     * Waits until the current search, if any, has finished and reported its best
+     * move.
+     */
+    public synchronized void waitForSearch() {
+        while (searchesReported < searchesStarted) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sums the nodes searched by every thread in the current or last search.
+     * While the search is running the total is approximate.
+     *
+     * @return the total nodes
+     */
+    public long getNodes() {
+        long nodes = 0;
+        for (Worker worker : workers) {
+            nodes += worker.search.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Gets the time from requesting the last search with {@link #start} to the
+     * main thread starting to search.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getStartLatency() {
+        return startLatency;
+    }
+
+    /**
+     * Gets the time from the last search being stopped with {@link #stop} to it
+     * reporting its best move.
+     *
+     * @return the latency in nanoseconds, or -1 if the last search was not
+     *         stopped
+     */
+    public long getStopLatency() {
+        return stopLatency;
+    }
+
+    /**
+     * Runs the main thread's search, then stops the helpers and reports the best
+     * move of all the threads. The search is marked as finished before the best
+     * move is reported, since a GUI may send the next 'go' as soon as it sees
+     * it.
+     *
+     * @param main the main worker
+     */
+    private void runMain(Worker main) {
+        startLatency = System.nanoTime() - startRequestTime;
+        Consumer<Move> onBestMove = this.onBestMove;
+
+        main.search.iterativeDeepening(maxDepth, timeManager, main.engine, info -> listener.onIteration(
+                new SearchInfo(info.getDepth(), info.getBestMove(), info.getScore(), info.getBound(), getNodes(),
+                        info.getTime(), info.getPrincipalVariation(), info.getStatistics())));
+
+        for (Worker worker : workers) {
+            worker.search.stop();
+        }
+        await(finishBarrier);
+
+        Search best = main.search;
+        for (Worker worker : workers) {
+            if (isBetter(worker.search, best)) {
+                best = worker.search;
+            }
+        }
+
+        long stopTime = stopRequestTime;
+        stopLatency = stopTime == 0 ? -1 : System.nanoTime() - stopTime;
+
+        Move result = best.getBestMove();
+
+        synchronized (this) {
+            bestMove = result;
+            searching = false;
+            notifyAll();
+        }
+
+        // A new search may already be resetting the searches, so only the
+        // move read before the search was marked as finished is reported
+        onBestMove.accept(result);
+
+        synchronized (this) {
+            searchesReported++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Compares the results of two threads. The deeper completed iteration wins.
+     * At the same depth, a move that beat the best move of a stopped deeper
+     * iteration wins over a completed one, and otherwise the higher score
+     * wins.
+     *
+     * @param search the thread's search to compare
+     * @param best   the best thread's search so far
+     * @return true if the thread's result is better
+     */
+    private static boolean isBetter(Search search, Search best) {
+        if (search.getCompletedDepth() != best.getCompletedDepth()) {
+            return search.getCompletedDepth() > best.getCompletedDepth();
+        }
+
+        if (search.isImprovedByInterruptedIteration() != best.isImprovedByInterruptedIteration()) {
+            return search.isImprovedByInterruptedIteration();
+        }
+
+        return search.getBestScore() > best.getBestScore();
+    }
+
+    /**
+     * Runs a helper thread's search until the main thread stops it.
+     *
+     * @param helper the helper worker
+     */
+    private void runHelper(Worker helper) {
+        helper.search.iterativeDeepening(maxDepth, TimeManager.unlimited(), helper.engine, info -> {
+        });
+
+        await(finishBarrier);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            throw new IllegalStateException("Search thread synchronisation failed", e);
+        }
+    }
+
+    /**
+     * A search thread with its own engine and search, which waits on the start
+     * barrier between searches.
+     */
+    private final class Worker implements Runnable {
+        private final int index;
+        private final Engine engine;
+        private final Search search;
+        private final Thread thread;
+
+        Worker(int index, Engine engine) {
+            this.index = index;
+            this.engine = engine;
+            this.search = new Search(engine.getSearchContext(), index);
+            this.thread = new Thread(this, "search-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                await(startBarrier);
+
+                if (shuttingDown) {
+                    return;
+                }
+
+                if (index == 0) {
+                    runMain(this);
+                } else {
+                    runHelper(this);
+                }
+            }
+        }
+    }
+}
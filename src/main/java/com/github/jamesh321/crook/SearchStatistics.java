@@ -0,0 +1,277 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Counters collected during a search, used to measure how well the search is
+ * ordering and pruning moves.
+ */
+public class SearchStatistics {
+
+    /**
+     * The number of nodes that failed high.
+     */
+    private long betaCutoffs;
+
+    /**
+     * The number of nodes that failed high on the first move searched.
+     */
+    private long firstMoveCutoffs;
+
+    /**
+     * The number of nodes pruned by a null move search.
+     */
+    private long nullMoveCutoffs;
+
+    /**
+     * The number of nodes pruned by reverse futility pruning.
+     */
+    private long reverseFutilityPrunes;
+
+    /**
+     * The number of quiet moves skipped by futility pruning.
+     */
+    private long futilityPrunes;
+
+    /**
+     * The number of nodes resolved by razoring into quiescence search.
+     */
+    private long razorPrunes;
+
+    /**
+     * The number of quiet moves skipped by late move pruning.
+     */
+    private long lateMovePrunes;
+
+    /**
+     * The number of quiet moves skipped because of their poor history.
+     */
+    private long historyPrunes;
+
+    /**
+     * The number of nodes pruned by ProbCut.
+     */
+    private long probCuts;
+
+    /**
+     * The number of nodes visited by quiescence search.
+     */
+    private long quiescenceNodes;
+
+    /**
+     * The number of captures skipped by delta pruning in quiescence search.
+     */
+    private long deltaPrunes;
+
+    /**
+     * The number of losing captures skipped in quiescence search.
+     */
+    private long seePrunes;
+
+    /**
+     * The number of checking moves extended by one ply.
+     */
+    private long checkExtensions;
+
+    /**
+     * The number of singular hash moves extended by one ply.
+     */
+    private long singularExtensions;
+
+    /**
+     * Records a beta cutoff.
+     *
+     * @param moveIndex the index of the move that caused the cutoff in the order
+     *                  the moves were searched
+     */
+    public void betaCutoff(int moveIndex) {
+        betaCutoffs++;
+        if (moveIndex == 0) {
+            firstMoveCutoffs++;
+        }
+    }
+
+    /**
+     * Records a node pruned by null move pruning.
+     */
+    public void nullMoveCutoff() {
+        nullMoveCutoffs++;
+    }
+
+    /**
+     * Records a node pruned by reverse futility pruning.
+     */
+    public void reverseFutilityPrune() {
+        reverseFutilityPrunes++;
+    }
+
+    /**
+     * Records a move skipped by futility pruning.
+     */
+    public void futilityPrune() {
+        futilityPrunes++;
+    }
+
+    /**
+     * Records a node resolved by razoring.
+     */
+    public void razorPrune() {
+        razorPrunes++;
+    }
+
+    /**
+     * Records a move skipped by late move pruning.
+     */
+    public void lateMovePrune() {
+        lateMovePrunes++;
+    }
+
+    /**
+     * Records a move skipped by history pruning.
+     */
+    public void historyPrune() {
+        historyPrunes++;
+    }
+
+    /**
+     * Records a node pruned by ProbCut.
+     */
+    public void probCut() {
+        probCuts++;
+    }
+
+    /**
+     * Records a node visited by quiescence search.
+     */
+    public void quiescenceNode() {
+        quiescenceNodes++;
+    }
+
+    /**
+     * Records a capture skipped by delta pruning.
+     */
+    public void deltaPrune() {
+        deltaPrunes++;
+    }
+
+    /**
+     * Records a capture skipped because it loses material.
+     */
+    public void seePrune() {
+        seePrunes++;
+    }
+
+    /**
+     * Records a checking move that was extended.
+     */
+    public void checkExtension() {
+        checkExtensions++;
+    }
+
+    /**
+     * Records a singular move that was extended.
+     */
+    public void singularExtension() {
+        singularExtensions++;
+    }
+
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    public long getNullMoveCutoffs() {
+        return nullMoveCutoffs;
+    }
+
+    public long getReverseFutilityPrunes() {
+        return reverseFutilityPrunes;
+    }
+
+    public long getFutilityPrunes() {
+        return futilityPrunes;
+    }
+
+    public long getRazorPrunes() {
+        return razorPrunes;
+    }
+
+    public long getLateMovePrunes() {
+        return lateMovePrunes;
+    }
+
+    public long getHistoryPrunes() {
+        return historyPrunes;
+    }
+
+    public long getProbCuts() {
+        return probCuts;
+    }
+
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    public long getDeltaPrunes() {
+        return deltaPrunes;
+    }
+
+    public long getSeePrunes() {
+        return seePrunes;
+    }
+
+    public long getCheckExtensions() {
+        return checkExtensions;
+    }
+
+    public long getSingularExtensions() {
+        return singularExtensions;
+    }
+
+    /**
+     * Gets the proportion of cutoffs caused by the first move searched. The
+     * closer this is to 1, the better the move ordering.
+     *
+     * @return the first move cutoff rate between 0 and 1, or 0 if there were no
+     *         cutoffs
+     */
+    public double getFirstMoveCutoffRate() {
+        return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+    }
+
+    /**
+     * Sets every counter back to zero.
+     */
+    public void reset() {
+        betaCutoffs = 0;
+        firstMoveCutoffs = 0;
+        nullMoveCutoffs = 0;
+        reverseFutilityPrunes = 0;
+        futilityPrunes = 0;
+        razorPrunes = 0;
+        lateMovePrunes = 0;
+        historyPrunes = 0;
+        probCuts = 0;
+        quiescenceNodes = 0;
+        deltaPrunes = 0;
+        seePrunes = 0;
+        checkExtensions = 0;
+        singularExtensions = 0;
+    }
+
+    /**
+     * Formats the statistics for a UCI 'info string' line.
+     *
+     * @return the statistics as a single line of text
+     */
+    @Override
+    public String toString() {
+        return String.format(
+                "cutoffs %d fmc %.1f%% nullmove %d rfp %d futility %d razor %d lmp %d history %d probcut %d"
+                        + " qnodes %d delta %d see %d checkext %d singext %d",
+                betaCutoffs, 100 * getFirstMoveCutoffRate(), nullMoveCutoffs, reverseFutilityPrunes, futilityPrunes,
+                razorPrunes, lateMovePrunes, historyPrunes, probCuts, quiescenceNodes, deltaPrunes, seePrunes,
+                checkExtensions, singularExtensions);
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Static exchange evaluation (SEE) of captures.
+ * <p>
+ * SEE plays out the sequence of captures on a move's destination square, each
+ * side always recapturing with its least valuable attacker, and returns the
+ * material balance assuming either side may stop capturing when continuing
+ * would lose material. Attackers hidden behind a piece that captures (x-rays)
+ * join the exchange once it has moved. Pins and checks are ignored.
+ */
+public final class StaticExchange {
+
+    private StaticExchange() {
+        // private constructor to prevent instantiation of this utility class
+    }
+
+    /**
+     * More captures than can ever be made on one square.
+     */
+    private static final int MAX_EXCHANGES = 32;
+
+    /**
+     * Calculates the material won or lost by a move after all recaptures on its
+     * destination square.
+     *
+     * @param move  the move to evaluate
+     * @param board the board the move is played on
+     * @return the material gained by the side to move, in centipawns
+     */
+    public static int evaluate(Move move, Board board) {
+        int to = move.getTo();
+        long[] bitboards = board.getBitboards();
+        long occupied = board.getOccupiedSquares() & ~LookupTables.BITBOARD_SQUARES[move.getFrom()];
+
+        int[] gain = new int[MAX_EXCHANGES];
+        int onSquareValue = Evaluate.getPieceValue(board.getPieceAtSquare(move.getFrom()));
+
+        gain[0] = MoveOrderer.getCapturedValue(move, board);
+
+        if (move.getSpecialMove() == Move.EN_PASSANT) {
+            int capturedSquare = board.isWhiteTurn() ? to + 8 : to - 8;
+            occupied &= ~LookupTables.BITBOARD_SQUARES[capturedSquare];
+        } else if (move.getSpecialMove() == Move.QUEEN_PROMOTION) {
+            int promotionValue = Evaluate.getPieceValue(Piece.fromIndex(4 - move.getPromotionPiece()));
+            gain[0] += promotionValue - Evaluate.PAWN_VALUE;
+            onSquareValue = promotionValue;
+        }
+
+        boolean whiteToCapture = !board.isWhiteTurn();
+        int depth = 0;
+
+        while (depth + 1 < MAX_EXCHANGES) {
+            long attackers = MoveGenerator.getAttackersTo(to, occupied, board) & occupied;
+            int offset = whiteToCapture ? 0 : 6;
+            long ownAttackers = attackers & sidePieces(bitboards, offset);
+
+            if (ownAttackers == 0) {
+                break;
+            }
+
+            // Find the least valuable attacker
+            int type = 0;
+            long attacker = 0;
+            for (; type < 6; type++) {
+                attacker = ownAttackers & bitboards[offset + type];
+                if (attacker != 0) {
+                    break;
+                }
+            }
+            attacker &= -attacker;
+
+            // The king can only recapture if the square is no longer defended
+            if (type == 5 && (attackers & ~ownAttackers) != 0) {
+                break;
+            }
+
+            // Neither side can gain by continuing, so the result is settled
+            if (Math.max(-gain[depth], onSquareValue - gain[depth]) < 0) {
+                break;
+            }
+
+            depth++;
+            gain[depth] = onSquareValue - gain[depth - 1];
+
+            onSquareValue = Evaluate.getPieceValue(Piece.fromIndex(type));
+            occupied &= ~attacker;
+            whiteToCapture = !whiteToCapture;
+        }
+
+        // Each side chooses between capturing and standing pat, from the end of
+        // the exchange back to the start
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+
+        return gain[0];
+    }
+
+    /**
+     * Determines if a move wins at least the given amount of material after all
+     * recaptures.
+     *
+     * @param move      the move to evaluate
+     * @param board     the board the move is played on
+     * @param threshold the material the move must win, in centipawns
+     * @return true if the static exchange evaluation of the move is at least the
+     *         threshold
+     */
+    public static boolean isAtLeast(Move move, Board board, int threshold) {
+        return evaluate(move, board) >= threshold;
+    }
+
+    private static long sidePieces(long[] bitboards, int offset) {
+        return bitboards[offset] | bitboards[offset + 1] | bitboards[offset + 2] | bitboards[offset + 3]
+                | bitboards[offset + 4] | bitboards[offset + 5];
+    }
+}
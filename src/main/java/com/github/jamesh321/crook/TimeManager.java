@@ -0,0 +1,215 @@
+package com.github.jamesh321.crook;
+
+/**
+ * Decides how long a search may take.
+ * <p>
+ * Under a clock, the search has two limits. The soft limit is checked between
+ * iterations: once it has passed, no new iteration is started, since it would
+ * most likely not finish. The hard limit aborts the search mid-iteration. Both
+ * start from an optimum time for the move and are scaled after each iteration:
+ * <ul>
+ * <li>by how many iterations the best move has stayed the same, so that a
+ * settled search stops early and an unsettled one keeps going</li>
+ * <li>by how far the score has dropped since the last iteration, since a
+ * falling score means there is a problem to solve</li>
+ * <li>by the number of legal moves at the root, so that forced moves are
+ * played almost at once</li>
+ * </ul>
+ * A fixed move time, or no limit at all, is not scaled.
+ */
+public class TimeManager {
+
+    /**
+     * The moves the remaining time is divided between when the GUI does not
+     * say how many moves are left until the next time control.
+     */
+    public static final int DEFAULT_MOVES_TO_GO = 40;
+
+    /**
+     * The default and largest milliseconds kept back from each move to cover
+     * the time the GUI takes to receive it.
+     */
+    public static final int DEFAULT_MOVE_OVERHEAD = 30;
+    public static final int MAX_MOVE_OVERHEAD = 5000;
+
+    /**
+     * Far enough in the future to never be reached, without overflowing when
+     * converted to nanoseconds and added to the start time.
+     */
+    private static final long UNLIMITED = Long.MAX_VALUE / 4_000_000;
+
+    /**
+     * How many times the soft limit the hard limit can be.
+     */
+    private static final int HARD_LIMIT_RATIO = 3;
+
+    /**
+     * The soft limit scale in percent, indexed by the number of iterations the
+     * best move has not changed for, up to 4.
+     */
+    private static final int[] STABILITY_SCALE = { 250, 120, 90, 80, 75 };
+
+    /**
+     * The soft limit scale in percent for each centipawn the score has dropped,
+     * and the bounds of the score scale.
+     */
+    private static final int SCORE_DROP_SCALE = 2;
+    private static final int MIN_SCORE_SCALE = 85;
+    private static final int MAX_SCORE_SCALE = 160;
+
+    /**
+     * The soft limit scale in percent when there is only one legal move.
+     */
+    private static final int SINGLE_MOVE_SCALE = 10;
+
+    /**
+     * The System.nanoTime at which the search started.
+     */
+    private final long startTime;
+
+    /**
+     * The time in milliseconds a search of average difficulty should take.
+     */
+    private final long optimumTime;
+
+    /**
+     * The time in milliseconds the search must never exceed.
+     */
+    private final long maximumTime;
+
+    /**
+     * True if the limits are scaled by the progress of the search.
+     */
+    private final boolean adaptive;
+
+    private long softLimit;
+    private long hardLimit;
+
+    private int lastBestMove = 0;
+    private int stability = 0;
+    private int lastScore;
+
+    private TimeManager(long optimumTime, long maximumTime, boolean adaptive) {
+        this.startTime = System.nanoTime();
+        this.optimumTime = optimumTime;
+        this.maximumTime = maximumTime;
+        this.adaptive = adaptive;
+        this.softLimit = optimumTime;
+        this.hardLimit = adaptive ? Math.min(optimumTime * HARD_LIMIT_RATIO, maximumTime) : maximumTime;
+    }
+
+    /**
+     * Creates a time manager that never stops the search.
+     *
+     * @return the time manager
+     */
+    public static TimeManager unlimited() {
+        return new TimeManager(UNLIMITED, UNLIMITED, false);
+    }
+
+    /**
+     * Creates a time manager that stops the search after a fixed time.
+     *
+     * @param moveTime     the time for the move in milliseconds
+     * @param moveOverhead the milliseconds to keep back for communication with
+     *                     the GUI
+     * @return the time manager
+     */
+    public static TimeManager fixed(long moveTime, long moveOverhead) {
+        long time = Math.max(0, moveTime - moveOverhead);
+        return new TimeManager(time, time, false);
+    }
+
+    /**
+     * Creates a time manager that shares the time left on the clock between
+     * the moves until the next time control.
+     *
+     * @param remaining    the milliseconds left on the clock
+     * @param increment    the milliseconds added to the clock after each move
+     * @param movesToGo    the moves until the next time control, or 0 if the
+     *                     rest of the game must be played in the remaining time
+     * @param moveOverhead the milliseconds to keep back for communication with
+     *                     the GUI
+     * @return the time manager
+     */
+    public static TimeManager forClock(long remaining, long increment, int movesToGo, long moveOverhead) {
+        long available = Math.max(1, remaining - moveOverhead);
+        int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+
+        long maximumTime = available * 3 / 4;
+        long optimumTime = Math.min(available / moves + increment * 3 / 4, maximumTime);
+
+        return new TimeManager(optimumTime, maximumTime, true);
+    }
+
+    /**
+     * Rescales the limits after an iteration has completed.
+     *
+     * @param bestMove  the best move of the iteration
+     * @param score     the score of the iteration
+     * @param rootMoves the number of legal moves at the root
+     */
+    public void update(Move bestMove, int score, int rootMoves) {
+        if (!adaptive) {
+            return;
+        }
+
+        // The first iteration has nothing to compare with
+        int stabilityScale = 100;
+        if (lastBestMove != 0) {
+            stability = bestMove.getData() == lastBestMove ? Math.min(stability + 1, STABILITY_SCALE.length - 1) : 0;
+            stabilityScale = STABILITY_SCALE[stability];
+        }
+
+        int scoreScale = 100;
+        if (lastBestMove != 0 && !Search.isMateScore(score) && !Search.isMateScore(lastScore)) {
+            scoreScale = Math.max(MIN_SCORE_SCALE,
+                    Math.min(100 + (lastScore - score) * SCORE_DROP_SCALE, MAX_SCORE_SCALE));
+        }
+
+        int rootMoveScale = rootMoves == 1 ? SINGLE_MOVE_SCALE : Math.min(100, 60 + 10 * rootMoves);
+
+        lastBestMove = bestMove.getData();
+        lastScore = score;
+
+        softLimit = optimumTime * stabilityScale / 100 * scoreScale / 100 * rootMoveScale / 100;
+        softLimit = Math.min(softLimit, maximumTime);
+        hardLimit = Math.min(Math.max(softLimit * HARD_LIMIT_RATIO, optimumTime), maximumTime);
+    }
+
+    /**
+     * Determines if the soft limit has passed, so that no new iteration should
+     * be started.
+     *
+     * @return true if the search should stop
+     */
+    public boolean isSoftLimitReached() {
+        return getElapsed() >= softLimit;
+    }
+
+    /**
+     * Gets the time at which the search must stop.
+     *
+     * @return the hard limit on the {@link System#nanoTime()} clock
+     */
+    public long getHardDeadline() {
+        return startTime + hardLimit * 1_000_000;
+    }
+
+    /**
+     * Gets the time since the search started.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsed() {
+        return (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    public long getSoftLimit() {
+        return softLimit;
+    }
+
+    public long getHardLimit() {
+        return hardLimit;
+    }
+}
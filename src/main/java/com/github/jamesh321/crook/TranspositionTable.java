@@ -0,0 +1,233 @@
+package com.github.jamesh321.crook;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results, indexed by the Zobrist hash of
+ * a position.
+ * <p>
+ * Entries are stored in a flat {@code long[]} as pairs of longs. The second
+ * long holds the packed entry data:
+ * <ul>
+ * <li>bits 0-15: the best move found</li>
+ * <li>bits 16-23: the depth searched</li>
+ * <li>bits 24-25: the bound type of the score</li>
+ * <li>bits 26-31: the search generation that stored the entry</li>
+ * <li>bits 32-63: the score</li>
+ * </ul>
+ * The first long holds the hash XORed with the data. An entry is only accepted
+ * when XORing the two longs gives back the hash being probed, so an entry torn
+ * by two threads writing at once is treated as a miss and no locking is needed.
+ * <p>
+ * Entries are grouped into buckets of {@value #BUCKET_SIZE}. When a bucket is
+ * full the entry with the lowest depth, counting older generations as
+ * shallower, is replaced.
+ */
+public class TranspositionTable {
+
+    /**
+     * The default size of the table in megabytes.
+     */
+    public static final int DEFAULT_SIZE_MB = 16;
+    /**
+     * The largest size of the table in megabytes.
+     */
+    public static final int MAX_SIZE_MB = 8192;
+
+    /**
+     * The score is the exact value of the position.
+     */
+    public static final int EXACT = 1;
+    /**
+     * The score failed high, so the position is worth at least the score.
+     */
+    public static final int LOWER_BOUND = 2;
+    /**
+     * The score failed low, so the position is worth at most the score.
+     */
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+    private static final int GENERATION_MASK = 0b111111;
+
+    private long[] table;
+    private int bucketMask;
+    private int generation;
+
+    /**
+     * Creates a table of the default size.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a table that uses at most the given number of megabytes.
+     *
+     * @param sizeMb the size of the table in megabytes
+     */
+    public TranspositionTable(int sizeMb) {
+        resize(sizeMb);
+    }
+
+    /**
+     * Reallocates the table to use at most the given number of megabytes. The
+     * number of buckets is rounded down to a power of two. All entries are lost.
+     * Must not be called while a search is running, since the table and its
+     * mask are not replaced atomically.
+     *
+     * @param sizeMb the size of the table in megabytes
+     */
+    public void resize(int sizeMb) {
+        sizeMb = Math.max(1, Math.min(sizeMb, MAX_SIZE_MB));
+
+        long buckets = Long.highestOneBit(((long) sizeMb << 20) / (BYTES_PER_ENTRY * BUCKET_SIZE));
+
+        this.table = new long[(int) (buckets * BUCKET_SIZE * LONGS_PER_ENTRY)];
+        this.bucketMask = (int) buckets - 1;
+        this.generation = 0;
+    }
+
+    /**
+     * Removes all entries from the table.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Starts a new search generation. Entries from earlier generations are
+     * replaced before entries from the current one.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Looks up the entry for a position.
+     *
+     * @param hash the Zobrist hash of the position
+     * @return the packed entry data, or 0 if the position is not in the table
+     */
+    public long probe(long hash) {
+        int bucket = bucketIndex(hash);
+
+        for (int i = bucket; i < bucket + BUCKET_SIZE * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+            long data = table[i + 1];
+
+            if (data != 0 && (table[i] ^ data) == hash) {
+                return data;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search. If the position is already in the table its
+     * entry is overwritten, keeping the old move if no new move is given.
+     *
+     * @param hash  the Zobrist hash of the position
+     * @param move  the encoded best move, or 0 if there is none
+     * @param depth the depth that was searched
+     * @param bound the bound type of the score
+     * @param score the score of the position
+     */
+    public void store(long hash, int move, int depth, int bound, int score) {
+        int bucket = bucketIndex(hash);
+        int replace = bucket;
+        int lowestWorth = Integer.MAX_VALUE;
+
+        for (int i = bucket; i < bucket + BUCKET_SIZE * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+            long data = table[i + 1];
+
+            if (data == 0) {
+                if (lowestWorth > Integer.MIN_VALUE) {
+                    replace = i;
+                    lowestWorth = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+
+            if ((table[i] ^ data) == hash) {
+                replace = i;
+                if (move == 0) {
+                    move = getMove(data);
+                }
+                break;
+            }
+
+            int age = (generation - getGeneration(data)) & GENERATION_MASK;
+            int worth = getDepth(data) - 8 * age;
+
+            if (worth < lowestWorth) {
+                replace = i;
+                lowestWorth = worth;
+            }
+        }
+
+        long data = pack(move, depth, bound, score);
+
+        table[replace] = hash ^ data;
+        table[replace + 1] = data;
+    }
+
+    /**
+     * Gets the move from packed entry data.
+     *
+     * @param data the packed entry data
+     * @return the encoded move, or 0 if no move was stored
+     */
+    public static int getMove(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * Gets the depth from packed entry data.
+     *
+     * @param data the packed entry data
+     * @return the depth that was searched
+     */
+    public static int getDepth(long data) {
+        return (int) ((data >>> 16) & 0xFF);
+    }
+
+    /**
+     * Gets the bound type from packed entry data.
+     *
+     * @param data the packed entry data
+     * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public static int getBound(long data) {
+        return (int) ((data >>> 24) & 0b11);
+    }
+
+    /**
+     * Gets the score from packed entry data.
+     *
+     * @param data the packed entry data
+     * @return the stored score
+     */
+    public static int getScore(long data) {
+        return (int) (data >> 32);
+    }
+
+    private static int getGeneration(long data) {
+        return (int) ((data >>> 26) & GENERATION_MASK);
+    }
+
+    private long pack(int move, int depth, int bound, int score) {
+        return (move & 0xFFFFL)
+                | ((long) (depth & 0xFF) << 16)
+                | ((long) bound << 24)
+                | ((long) generation << 26)
+                | ((long) score << 32);
+    }
+
+    private int bucketIndex(long hash) {
+        return ((int) hash & bucketMask) * BUCKET_SIZE * LONGS_PER_ENTRY;
+    }
+}
@@ -13,7 +13,27 @@ import java.util.HashMap;
  */
 public final class Uci implements Runnable {
 
-    public static Thread searchThread = null;
+    /**
+     * The threads that run the search for the 'go' command.
+     */
+    private static SearchPool searchPool;
+
+    /**
+     * The deepest iteration searched when 'go' is not given a depth.
+     */
+    private static final int MAX_DEPTH = 99;
+
+    /**
+     * The milliseconds to search for when 'go' is given neither a clock nor a
+     * move time.
+     */
+    private static final long DEFAULT_MOVE_TIME = 2000;
+
+    /**
+     * The milliseconds kept back from each move for communication with the GUI,
+     * set by the 'Move Overhead' option.
+     */
+    private static int moveOverhead = TimeManager.DEFAULT_MOVE_OVERHEAD;
 
     private Uci() {
     }
@@ -29,6 +49,7 @@ public final class Uci implements Runnable {
      */
     public static void main(String[] args) {
         Engine engine = new Engine(new Board());
+        searchPool = new SearchPool(engine);
         Scanner scanner = new Scanner(System.in);
 
         while (true) {
@@ -61,6 +82,12 @@ public final class Uci implements Runnable {
             case "isready":
                 System.out.println("readyok");
                 break;
+            case "setoption":
+                setOptionCommand(tokens, engine);
+                break;
+            case "ucinewgame":
+                newGameCommand();
+                break;
             case "position":
                 positionCommand(tokens, engine);
                 break;
@@ -70,6 +97,9 @@ public final class Uci implements Runnable {
             case "stop":
                 stopCommand();
                 break;
+            case "bench":
+                benchCommand(tokens);
+                break;
             default:
                 break;
         }
@@ -77,8 +107,8 @@ public final class Uci implements Runnable {
 
     /**
      * Handles the 'uci' command.
-     * Identifies the engine and author to the GUI and signals that the engine
-     * supports UCI.
+     * Identifies the engine and author to the GUI, lists the options the engine
+     * supports and signals that the engine supports UCI.
      */
     private static void uciCommand() {
         String name = "crook";
@@ -86,9 +116,80 @@ public final class Uci implements Runnable {
 
         System.out.printf("id name %s\n", name);
         System.out.printf("id author %s\n", author);
+        System.out.printf("option name Hash type spin default %d min 1 max %d\n", TranspositionTable.DEFAULT_SIZE_MB,
+                TranspositionTable.MAX_SIZE_MB);
+        System.out.printf("option name Threads type spin default 1 min 1 max %d\n", SearchPool.MAX_THREADS);
+        System.out.printf("option name Move Overhead type spin default %d min 0 max %d\n",
+                TimeManager.DEFAULT_MOVE_OVERHEAD, TimeManager.MAX_MOVE_OVERHEAD);
+        for (SearchParameter parameter : SearchParameter.values()) {
+            System.out.println(parameter.toUciOption());
+        }
         System.out.println("uciok");
     }
 
+    /**
+     * Handles the 'setoption' command.
+     * The command has the form "setoption name [name] value [value]", where the
+     * name may contain spaces. Unknown options and invalid values are ignored.
+     * 
+     * @param tokens the tokenised command string
+     * @param engine the chess engine instance to configure
+     */
+    private static void setOptionCommand(String[] tokens, Engine engine) {
+        int nameIndex = Arrays.asList(tokens).indexOf("name");
+        int valueIndex = Arrays.asList(tokens).indexOf("value");
+
+        if (nameIndex == -1) {
+            return;
+        }
+
+        int nameEnd = valueIndex == -1 ? tokens.length : valueIndex;
+        String name = String.join(" ", Arrays.copyOfRange(tokens, nameIndex + 1, nameEnd));
+        String value = valueIndex == -1 ? ""
+                : String.join(" ", Arrays.copyOfRange(tokens, valueIndex + 1, tokens.length));
+
+        try {
+            switch (name.toLowerCase()) {
+                case "hash":
+                    if (!searchPool.isSearching()) {
+                        engine.getTranspositionTable().resize(Integer.parseInt(value));
+                    }
+                    break;
+                case "threads":
+                    if (!searchPool.isSearching()) {
+                        searchPool.setThreads(Integer.parseInt(value));
+                    }
+                    break;
+                case "move overhead":
+                    moveOverhead = Math.max(0, Math.min(Integer.parseInt(value), TimeManager.MAX_MOVE_OVERHEAD));
+                    break;
+                default:
+                    SearchParameter parameter = SearchParameter.fromOptionName(name);
+                    if (parameter != null) {
+                        parameter.set(Integer.parseInt(value));
+                    }
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // Ignore invalid values
+        }
+    }
+
+    /**
+     * Handles the 'ucinewgame' command.
+     * Forgets everything learned in the last game. A search still running is
+     * stopped first, since its threads read and write the tables being
+     * cleared.
+     */
+    private static void newGameCommand() {
+        if (searchPool.isSearching()) {
+            searchPool.stop();
+            searchPool.waitForSearch();
+        }
+
+        searchPool.clear();
+    }
+
     /**
      * Handles the 'position' command.
      * Sets up the board position according to the given parameters,
@@ -115,65 +216,94 @@ public final class Uci implements Runnable {
 
     /**
      * Handles the 'go' command.
-     * Creates a new thread and starts the search for the best move and outputs the
-     * result using iterative
-     * deepening.
+     * Starts searching the position with iterative deepening on the search
+     * threads, printing the result of each iteration, and then outputs the best
+     * move.
      * 
      * @param tokens the tokenised command string containing search parameters
      * @param engine the chess engine to use for finding the best move
      */
     private static void goCommand(String[] tokens, Engine engine) {
-        if (searchThread != null && searchThread.isAlive()) {
+        if (searchPool.isSearching()) {
             return;
         }
 
-        searchThread = new Thread(() -> {
-            HashMap<String, String> commands = processGoCommands(tokens);
-
-            long timeForMove = calculateMsecForMove(commands, engine);
+        HashMap<String, String> commands = processGoCommands(tokens);
 
-            long startTime = System.currentTimeMillis();
-            long endTime = startTime + timeForMove;
+        TimeManager timeManager = createTimeManager(commands, engine);
+        int maxDepth = (int) getLongValue(commands, "depth", MAX_DEPTH);
 
-            Move lastBestMove = null;
-            Move bestMove;
+        searchPool.newSearch();
+        searchPool.start(maxDepth, timeManager, Uci::printSearchInfo, Uci::printBestMove);
+    }
 
-            for (int depth = 1; depth < 100; depth++) {
-                HashMap<String, Object> bestMoveInfo = engine.findBestMove(depth, lastBestMove, endTime);
+    /**
+     * Outputs the time the search took to start after the 'go' command, and to
+     * finish after the 'stop' command if there was one, and the best move at
+     * the end of a search.
+     * 
+     * @param bestMove the best move, or null if there are no legal moves
+     */
+    private static void printBestMove(Move bestMove) {
+        System.out.printf("info string go latency %d us\n", searchPool.getStartLatency() / 1000);
+        if (searchPool.getStopLatency() != -1) {
+            System.out.printf("info string stop latency %d us\n", searchPool.getStopLatency() / 1000);
+        }
 
-                bestMove = (Move) bestMoveInfo.get("best move");
-                long nodes = (long) bestMoveInfo.get("nodes");
-                long time = (long) bestMoveInfo.get("time");
-                long nps = (long) bestMoveInfo.get("nps");
-                int score = (int) bestMoveInfo.get("score");
+        // The GUI waits for a best move even when there is none to make
+        System.out.println("bestmove " + (bestMove != null ? bestMove : "0000"));
+    }
 
-                if (bestMove == null || System.currentTimeMillis() >= endTime) {
-                    break;
-                }
+    /**
+     * Outputs the result of a search iteration as UCI 'info' lines.
+     * 
+     * @param info the result of the iteration
+     */
+    private static void printSearchInfo(SearchInfo info) {
+        int score = info.getScore();
+        String scoreString = Search.isMateScore(score) ? "mate " + Search.mateInMoves(score) : "cp " + score;
+        String bound = switch (info.getBound()) {
+            case TranspositionTable.LOWER_BOUND -> " lowerbound";
+            case TranspositionTable.UPPER_BOUND -> " upperbound";
+            default -> "";
+        };
+
+        StringBuilder pv = new StringBuilder();
+        for (int move : info.getPrincipalVariation()) {
+            pv.append(pv.isEmpty() ? " pv " : " ").append(new Move(move));
+        }
 
-                lastBestMove = bestMove;
+        System.out.printf("info depth %d nodes %d time %d nps %d score %s%s%s\n", info.getDepth(), info.getNodes(),
+                info.getTime(), info.getNps(), scoreString, bound, pv);
+        System.out.printf("info string %s\n", info.getStatistics());
+    }
 
-                System.out.printf("info depth %d nodes %d time %d nps %d score cp %d\n", depth, nodes, time, nps,
-                        score);
-            }
+    /**
+     * Handles the 'bench' command, which is not part of UCI.
+     * Searches the bench positions to the given depth, or the default depth if
+     * none is given, and prints the node count and speed.
+     * 
+     * @param tokens the tokenised command string
+     */
+    private static void benchCommand(String[] tokens) {
+        int depth = Bench.DEFAULT_DEPTH;
 
-            if (lastBestMove != null) {
-                System.out.println("bestmove " + lastBestMove);
+        if (tokens.length > 1) {
+            try {
+                depth = Integer.parseInt(tokens[1]);
+            } catch (NumberFormatException e) {
+                // Use the default depth
             }
+        }
 
-            searchThread = null;
-        });
-
-        searchThread.start();
+        Bench.run(depth);
     }
 
     /**
-     * Interrupts the current search thread.
+     * Stops the current search.
      */
     private static void stopCommand() {
-        if (searchThread != null && searchThread.isAlive()) {
-            searchThread.interrupt();
-        }
+        searchPool.stop();
     }
 
     /**
@@ -218,6 +348,8 @@ public final class Uci implements Runnable {
     private static void loadFen(String[] tokens, Engine engine) {
         int movesIndex = getMoveIndex(tokens);
 
+        engine.setBoard(new Board());
+
         String fen;
         if (movesIndex != -1) {
             fen = String.join(" ", Arrays.copyOfRange(tokens, 2, movesIndex));
@@ -267,40 +399,34 @@ public final class Uci implements Runnable {
     }
 
     /**
-     * Calculates the time in milliseconds to allocate for the next move.
-     * Takes into account the remaining time, increment, and moves to go.
+     * Creates the time manager for the next move from the go command
+     * parameters: a fixed move time, the remaining time, increment and moves to
+     * go of the side to move, or no limit for 'infinite' or a fixed depth.
      * 
      * @param commands the map of go command parameters
      * @param engine   the chess engine instance to check the current turn
-     * @return the time in milliseconds to use for the next move
+     * @return the time manager for the search
      */
-    private static long calculateMsecForMove(HashMap<String, String> commands, Engine engine) {
+    private static TimeManager createTimeManager(HashMap<String, String> commands, Engine engine) {
         if (commands.containsKey("movetime")) {
-            return Long.parseLong(commands.get("movetime"));
+            return TimeManager.fixed(getLongValue(commands, "movetime", 0), moveOverhead);
         }
 
         if (commands.containsKey("infinite")) {
-            return Integer.MAX_VALUE;
+            return TimeManager.unlimited();
         }
 
-        long whiteTime = getLongValue(commands, "wtime", 0);
-        long blackTime = getLongValue(commands, "btime", 0);
-        long whiteIncrement = getLongValue(commands, "winc", 0);
-        long blackIncrement = getLongValue(commands, "binc", 0);
-        long movesRemaining = getLongValue(commands, "movestogo", 40);
-
         boolean isWhiteTurn = engine.getBoard().isWhiteTurn();
-        long msecRemaining = isWhiteTurn ? whiteTime : blackTime;
-        long msecIncrement = isWhiteTurn ? whiteIncrement : blackIncrement;
+        long msecRemaining = getLongValue(commands, isWhiteTurn ? "wtime" : "btime", 0);
+        long msecIncrement = getLongValue(commands, isWhiteTurn ? "winc" : "binc", 0);
+        int movesToGo = (int) getLongValue(commands, "movestogo", 0);
 
         if (msecRemaining == 0) {
-            return 2000;
+            return commands.containsKey("depth") ? TimeManager.unlimited()
+                    : TimeManager.fixed(DEFAULT_MOVE_TIME, 0);
         }
 
-        long timeForMove = (msecRemaining / movesRemaining) + msecIncrement;
-        timeForMove = (long) (timeForMove * 0.95);
-
-        return timeForMove;
+        return TimeManager.forClock(msecRemaining, msecIncrement, movesToGo, moveOverhead);
     }
 
     /**
@@ -0,0 +1,103 @@
+package com.github.jamesh321.crook;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys used to build Zobrist hashes of board positions.
+ * <p>
+ * A position's hash is the XOR of the key for every piece on its square, the
+ * key for the castling rights, the key for the en passant file (if any) and the
+ * side key when black is to move. Because XOR is its own inverse, the hash can
+ * be updated incrementally as pieces move.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+        // private constructor to prevent instantiation of this utility class
+    }
+
+    /**
+     * Keys for each piece on each square, indexed by [piece index][square].
+     */
+    public static final long[][] PIECE_SQUARE = new long[12][64];
+    /**
+     * Keys for each combination of castling rights.
+     */
+    public static final long[] CASTLING = new long[16];
+    /**
+     * Keys for the file of the en passant square.
+     */
+    public static final long[] EN_PASSANT_FILE = new long[8];
+    /**
+     * Key that is included when it is black's turn.
+     */
+    public static final long SIDE;
+
+    static {
+        // Fixed seed so that hashes are the same between runs
+        SplittableRandom random = new SplittableRandom(0x5EED_C80C_4L);
+
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_SQUARE[piece][square] = random.nextLong();
+            }
+        }
+
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+
+        SIDE = random.nextLong();
+    }
+
+    /**
+     * Calculates the hash of a board from scratch.
+     *
+     * @param board the board to hash
+     * @return the Zobrist hash of the position
+     */
+    public static long hash(Board board) {
+        long hash = 0L;
+
+        for (int piece = 0; piece < 12; piece++) {
+            hash ^= pieceHash(piece, board.getBitboards()[piece]);
+        }
+
+        hash ^= CASTLING[board.getCastlingRights()];
+
+        if (board.getEnPassantSquare() != -1) {
+            hash ^= EN_PASSANT_FILE[board.getEnPassantSquare() % 8];
+        }
+
+        if (!board.isWhiteTurn()) {
+            hash ^= SIDE;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Calculates the combined key of a piece on every square of a bitboard.
+     *
+     * @param piece    the index of the piece
+     * @param bitboard the squares the piece is on
+     * @return the XOR of the keys for the piece on each square
+     */
+    public static long pieceHash(int piece, long bitboard) {
+        long hash = 0L;
+
+        while (bitboard != 0) {
+            int square = 63 - Long.numberOfTrailingZeros(bitboard);
+
+            hash ^= PIECE_SQUARE[piece][square];
+
+            bitboard &= bitboard - 1;
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BenchTest {
+
+    @Test
+    void testBenchIsDeterministic() {
+        long nodes = Bench.run(3);
+
+        assertTrue(nodes > 0);
+        assertEquals(nodes, Bench.run(3));
+    }
+}
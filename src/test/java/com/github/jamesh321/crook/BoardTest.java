@@ -27,4 +27,58 @@ public class BoardTest {
         assertNull(board.getPieceAtSquare(28));
         assertNull(board.getPieceAtSquare(31));
     }
+
+    @Test
+    void getHash_shouldMatchFullHashAfterMoves() {
+        Engine engine = new Engine(board);
+        engine.makeMove(new Move("e2e4", board));
+        engine.makeMove(new Move("e7e5", board));
+        engine.makeMove(new Move("e1e2", board));
+
+        assertEquals(Zobrist.hash(board), board.getHash());
+    }
+
+    @Test
+    void getHash_shouldBeRestoredAfterUndo() {
+        Engine engine = new Engine(board);
+        long hash = board.getHash();
+        engine.makeMove(new Move("g1f3", board));
+        engine.undoMove();
+
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    void getHash_shouldBeEqualForTransposedMoves() {
+        Engine engine = new Engine(board);
+        engine.makeMove(new Move("g1f3", board));
+        engine.makeMove(new Move("g8f6", board));
+        engine.makeMove(new Move("b1c3", board));
+        long hash = board.getHash();
+
+        Engine otherEngine = new Engine(new Board());
+        Board otherBoard = otherEngine.getBoard();
+        otherEngine.makeMove(new Move("b1c3", otherBoard));
+        otherEngine.makeMove(new Move("g8f6", otherBoard));
+        otherEngine.makeMove(new Move("g1f3", otherBoard));
+
+        assertEquals(hash, otherBoard.getHash());
+    }
+
+    @Test
+    void makeNullMove_shouldOnlyChangeTurnAndEnPassant() {
+        Engine engine = new Engine(board);
+        engine.makeMove(new Move("e2e4", board));
+        long hash = board.getHash();
+        engine.makeNullMove();
+
+        assertTrue(board.isWhiteTurn());
+        assertEquals(-1, board.getEnPassantSquare());
+        assertEquals(Zobrist.hash(board), board.getHash());
+
+        engine.unmakeNullMove();
+
+        assertFalse(board.isWhiteTurn());
+        assertEquals(hash, board.getHash());
+    }
 }
@@ -0,0 +1,90 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EngineTest {
+    Engine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new Engine(new Board());
+    }
+
+    private void play(String... moves) {
+        for (String move : moves) {
+            engine.makeMove(new Move(move, engine.getBoard()));
+        }
+    }
+
+    @Test
+    void testRepetitionAfterKnightsReturn() {
+        play("g1f3", "g8f6", "f3g1");
+        assertFalse(engine.isRepetition());
+
+        play("f6g8");
+        assertTrue(engine.isRepetition());
+
+        engine.undoMove();
+        assertFalse(engine.isRepetition());
+    }
+
+    @Test
+    void testNoRepetitionAcrossPawnMove() {
+        play("g1f3", "g8f6", "f3g1", "f6g8", "e2e4", "g8f6", "g1f3", "f6g8", "f3g1");
+
+        assertFalse(engine.isRepetition());
+    }
+
+    @Test
+    void testNoRepetitionAcrossNullMove() {
+        play("g1f3", "g8f6");
+        engine.makeNullMove();
+        play("f6g8");
+        engine.makeNullMove();
+
+        assertFalse(engine.isRepetition());
+    }
+
+    @Test
+    void testUpcomingRepetitionWithinSearch() {
+        play("g1f3", "g8f6", "f3g1");
+
+        // Black can play f6g8 to return to the starting position
+        assertTrue(engine.hasUpcomingRepetition(4));
+        assertFalse(engine.hasUpcomingRepetition(3));
+    }
+
+    @Test
+    void testNoUpcomingRepetitionWhenPathIsBlocked() {
+        Fen.load("7k/8/8/8/3R3r/8/8/K7 w - - 0 1", engine.getBoard());
+        play("d4d1", "h4a4", "d1d4");
+
+        // The black rook cannot return to h4 through the white rook on d4
+        assertFalse(engine.hasUpcomingRepetition(4));
+    }
+
+    @Test
+    void testCuckooFindsReversibleMove() {
+        Move move = Cuckoo.find(Zobrist.PIECE_SQUARE[Piece.WHITE_KNIGHT.getIndex()][62]
+                ^ Zobrist.PIECE_SQUARE[Piece.WHITE_KNIGHT.getIndex()][45] ^ Zobrist.SIDE);
+
+        assertNotNull(move);
+        assertEquals(45 + 62, move.getFrom() + move.getTo());
+        assertNull(Cuckoo.find(Zobrist.SIDE));
+    }
+
+    @Test
+    void testSetBoardClearsHistory() {
+        play("g1f3", "g8f6", "f3g1", "f6g8");
+        engine.setBoard(new Board());
+
+        assertFalse(engine.isRepetition());
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.jamesh321.crook;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,4 +60,17 @@ public class EvaluateTest {
         assertEquals(85, Evaluate.piecePositions(board));
     }
 
+    @Test
+    void testBoard_drawnMaterialScoresZero() {
+        Fen.load("8/8/4k3/8/8/3KN3/8/8 w - - 0 1", board);
+        assertEquals(0, Evaluate.board(board));
+    }
+
+    @Test
+    void testBoard_knownDrawScalesTowardsZero() {
+        Fen.load("8/8/4k3/8/8/3KNN2/8/8 w - - 0 1", board);
+        int score = Evaluate.board(board);
+
+        assertTrue(score > 0 && score < Evaluate.KNIGHT_VALUE / 4);
+    }
 }
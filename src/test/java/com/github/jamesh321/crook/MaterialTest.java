@@ -0,0 +1,88 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MaterialTest {
+    Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+    }
+
+    private int probe(String fen) {
+        Fen.load(fen, board);
+        return Material.probe(board);
+    }
+
+    @Test
+    void testStartingPosition() {
+        int entry = Material.probe(board);
+
+        assertEquals(0, Material.getImbalance(entry));
+        assertFalse(Material.isDraw(entry));
+        assertFalse(Material.isEndGame(entry));
+    }
+
+    @Test
+    void testInsufficientMaterial() {
+        assertEquals(Material.INSUFFICIENT_MATERIAL, Material.getFlags(probe("8/8/4k3/8/8/3K4/8/8 w - - 0 1"))
+                & Material.INSUFFICIENT_MATERIAL);
+        assertTrue(Material.isDraw(probe("8/8/4k3/8/8/3KN3/8/8 w - - 0 1")));
+        assertTrue(Material.isDraw(probe("8/8/4k3/8/8/3KB3/8/8 w - - 0 1")));
+    }
+
+    @Test
+    void testKnownDraws() {
+        assertTrue(Material.isDraw(probe("8/8/4k3/8/8/3KNN2/8/8 w - - 0 1")));
+        assertTrue(Material.isDraw(probe("8/8/4kb2/8/8/3KN3/8/8 w - - 0 1")));
+    }
+
+    @Test
+    void testWinningMaterialIsNotDrawn() {
+        assertFalse(Material.isDraw(probe("8/8/4k3/8/8/3KR3/8/8 w - - 0 1")));
+        assertFalse(Material.isDraw(probe("8/8/4k3/8/8/3KBB2/8/8 w - - 0 1")));
+        assertFalse(Material.isDraw(probe("8/8/4k3/8/4P3/3KN3/8/8 w - - 0 1")));
+    }
+
+    @Test
+    void testBishopPair() {
+        assertEquals(30, Material.getImbalance(probe("8/8/4k3/8/8/3KBB2/8/8 w - - 0 1")));
+    }
+
+    @Test
+    void testMaterialOutsideTable() {
+        int entry = probe("QQQ5/8/4k3/8/8/3K4/8/8 w - - 0 1");
+
+        assertFalse(Material.isDraw(entry));
+        assertTrue(Material.isEndGame(entry));
+    }
+
+    @Test
+    void testPieceCountsFollowMovesAndUndo() {
+        Engine engine = new Engine(board);
+        Fen.load("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", board);
+
+        engine.makeMove(new Move("e4d5", board));
+        assertEquals(0, board.getPieceCount(Piece.BLACK_PAWN));
+        assertEquals(1, board.getPieceCount(Piece.WHITE_PAWN));
+
+        engine.undoMove();
+        assertEquals(1, board.getPieceCount(Piece.BLACK_PAWN));
+    }
+
+    @Test
+    void testPieceCountsFollowPromotion() {
+        Engine engine = new Engine(board);
+        Fen.load("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", board);
+
+        engine.makeMove(new Move("a7a8q", board));
+        assertEquals(0, board.getPieceCount(Piece.WHITE_PAWN));
+        assertEquals(1, board.getPieceCount(Piece.WHITE_QUEEN));
+    }
+}
@@ -56,4 +56,16 @@ public class MoveGeneratorTest {
         board.updateCompositeBitboards();
         assertEquals(4, MoveGenerator.generateKingMoves(board).size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void generateLegalCaptures_shouldReturnOnlyCaptures() {
+        Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", board);
+        assertEquals(8, MoveGenerator.generateLegalCaptures(board).size());
+    }
+
+    @Test
+    void generateLegalCaptures_shouldIncludePromotions() {
+        Fen.load("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", board);
+        assertEquals(4, MoveGenerator.generateLegalCaptures(board).size());
+    }
+}
@@ -1,97 +1,107 @@
 package com.github.jamesh321.crook;
 
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
 
-import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Perft tests driven by the positions in {@code perft.epd}.
+ * <p>
+ * The quick tier runs on every build and checks each position up to the
+ * deepest depth whose expected node count is within {@code perft.quick.maxNodes}.
+ * The full tier is tagged {@code perft-full} and only runs with the
+ * {@code perft-full} Maven profile. It searches every position to the deepest
+ * depth whose expected node count is within {@code perft.full.maxNodes}, writes
+ * the nodes per second for each position to {@code perft.results} and compares
+ * them against the {@code perft-baseline.csv} entry for the same position and
+ * depth. The default limit matches the one the baseline was measured with.
+ */
 public class PerftTest {
-    Engine engine;
+    private static final String SUITE = "/perft.epd";
+    private static final String BASELINE = "/perft-baseline.csv";
 
-    @BeforeEach
-    void setUp() {
-        engine = new Engine(new Board());
-    }
+    private static final long QUICK_MAX_NODES = Long.getLong("perft.quick.maxNodes", 1_000_000L);
+    private static final long FULL_MAX_NODES = Long.getLong("perft.full.maxNodes", 200_000_000L);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("perft.tolerance", "0.15"));
+    private static final String RESULTS = System.getProperty("perft.results", "target/perft-results.csv");
 
-    // Test starting position
-    @Test
-    void testPosition1() {
-        long expectedNodes = 3195901860L;
-        long startTime = System.nanoTime();
-        long actualNodes = perft(7);
-        long endTime = System.nanoTime();
-        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
-        double nodesPerSecond = actualNodes / elapsedSeconds;
-        System.out.printf("Nodes per second for position 1: %,.0f%n", nodesPerSecond);
-        assertEquals(expectedNodes, actualNodes);
-    }
-
-    // Test position known as kiwipete
-    @Test
-    void testPosition2() {
-        long expectedNodes = 8031647685L;
-        Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", engine.getBoard());
-        long startTime = System.nanoTime();
-        long actualNodes = perft(6);
-        long endTime = System.nanoTime();
-        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
-        double nodesPerSecond = actualNodes / elapsedSeconds;
-        System.out.printf("Nodes per second for position 2: %,.0f%n", nodesPerSecond);
-        assertEquals(expectedNodes, actualNodes);
-    }
+    Engine engine;
 
-    @Test
-    void testPosition3() {
-        long expectedNodes = 3009794393L;
-        Fen.load("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", engine.getBoard());
-        long startTime = System.nanoTime();
-        long actualNodes = perft(8);
-        long endTime = System.nanoTime();
-        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
-        double nodesPerSecond = actualNodes / elapsedSeconds;
-        System.out.printf("Nodes per second for position 3: %,.0f%n", nodesPerSecond);
-        assertEquals(expectedNodes, actualNodes);
+    @TestFactory
+    Stream<DynamicTest> quickPerft() throws IOException {
+        return loadSuite().stream().flatMap(position -> position.depths(QUICK_MAX_NODES).stream()
+                .map(depth -> DynamicTest.dynamicTest(position.name() + " depth " + depth, () -> {
+                    engine = position.load();
+                    assertEquals(position.expectedNodes().get(depth), perft(depth));
+                })));
     }
 
     @Test
-    void testPosition4() {
-        long expectedNodes = 706045033L;
-        Fen.load("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", engine.getBoard());
-        long startTime = System.nanoTime();
-        long actualNodes = perft(6);
-        long endTime = System.nanoTime();
-        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
-        double nodesPerSecond = actualNodes / elapsedSeconds;
-        System.out.printf("Nodes per second for position 4: %,.0f%n", nodesPerSecond);
-        assertEquals(expectedNodes, actualNodes);
-    }
+    @Tag("perft-full")
+    void fullPerft() throws IOException {
+        Map<String, Long> baseline = loadBaseline();
+        List<String> slowdowns = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+
+        Path results = Path.of(RESULTS);
+        if (results.getParent() != null) {
+            Files.createDirectories(results.getParent());
+        }
 
-    @Test
-    void testPosition5() {
-        long expectedNodes = 89941194L;
-        Fen.load("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", engine.getBoard());
-        long startTime = System.nanoTime();
-        long actualNodes = perft(5);
-        long endTime = System.nanoTime();
-        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
-        double nodesPerSecond = actualNodes / elapsedSeconds;
-        System.out.printf("Nodes per second for position 5: %,.0f%n", nodesPerSecond);
-        assertEquals(expectedNodes, actualNodes);
-    }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(results, StandardCharsets.UTF_8))) {
+            writer.println("position,depth,nodes,millis,nps");
+
+            for (PerftPosition position : loadSuite()) {
+                List<Integer> depths = position.depths(FULL_MAX_NODES);
+                if (depths.isEmpty()) {
+                    continue;
+                }
+                int depth = depths.get(depths.size() - 1);
+
+                engine = position.load();
+                long startTime = System.nanoTime();
+                long actualNodes = perft(depth);
+                long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+                long nodesPerSecond = (long) (actualNodes / (elapsedNanos / 1_000_000_000.0));
+
+                assertEquals(position.expectedNodes().get(depth), actualNodes, position.name() + " depth " + depth);
+
+                writer.printf("%s,%d,%d,%d,%d%n", position.name(), depth, actualNodes, elapsedNanos / 1_000_000,
+                        nodesPerSecond);
+                System.out.printf("Nodes per second for %s: %,d%n", position.name(), nodesPerSecond);
+
+                Long expectedNps = baseline.get(baselineKey(position.name(), depth));
+                if (expectedNps == null) {
+                    missing.add(position.name() + " depth " + depth);
+                } else if (nodesPerSecond < expectedNps * (1 - TOLERANCE)) {
+                    slowdowns.add(String.format("%s: %,d nps (baseline %,d nps)", position.name(), nodesPerSecond,
+                            expectedNps));
+                }
+            }
+        }
 
-    @Test
-    void testPosition6() {
-        long expectedNodes = 6923051137L;
-        Fen.load("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", engine.getBoard());
-        long startTime = System.nanoTime();
-        long actualNodes = perft(6);
-        long endTime = System.nanoTime();
-        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
-        double nodesPerSecond = actualNodes / elapsedSeconds;
-        System.out.printf("Nodes per second for position 6: %,.0f%n", nodesPerSecond);
-        assertEquals(expectedNodes, actualNodes);
+        assertTrue(missing.isEmpty(), "No baseline for " + String.join(", ", missing)
+                + "; copy " + RESULTS + " over perft-baseline.csv to accept these depths");
+        assertTrue(slowdowns.isEmpty(), "Perft slower than baseline: " + String.join(", ", slowdowns));
     }
 
     private long perft(int depth) {
@@ -131,4 +141,88 @@ public class PerftTest {
 
         System.out.println("\nTotal Nodes: " + totalNodes);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the perft suite. Each line holds a FEN followed by
+     * {@code ;D<depth> <nodes>} fields. Blank lines and lines starting with '#'
+     * are ignored.
+     */
+    private static List<PerftPosition> loadSuite() throws IOException {
+        List<PerftPosition> positions = new ArrayList<>();
+
+        for (String line : readLines(SUITE)) {
+            String[] fields = line.split(";");
+            Map<Integer, Long> expectedNodes = new HashMap<>();
+
+            for (int i = 1; i < fields.length; i++) {
+                String[] field = fields[i].trim().split("\\s+");
+                expectedNodes.put(Integer.parseInt(field[0].substring(1)), Long.parseLong(field[1]));
+            }
+
+            positions.add(new PerftPosition("position " + (positions.size() + 1), fields[0].trim(), expectedNodes));
+        }
+
+        return positions;
+    }
+
+    /**
+     * Reads the stored nodes per second for each position and depth, keyed by
+     * {@link #baselineKey}. The baseline has the same format as the results file
+     * written by the full tier, so a results file can be copied over it to
+     * accept new numbers.
+     */
+    private static Map<String, Long> loadBaseline() throws IOException {
+        Map<String, Long> baseline = new HashMap<>();
+
+        for (String line : readLines(BASELINE)) {
+            String[] fields = line.split(",");
+            if (!fields[0].equals("position")) {
+                baseline.put(baselineKey(fields[0], Integer.parseInt(fields[1].trim())),
+                        Long.parseLong(fields[fields.length - 1].trim()));
+            }
+        }
+
+        return baseline;
+    }
+
+    private static String baselineKey(String position, int depth) {
+        return position + " depth " + depth;
+    }
+
+    private static List<String> readLines(String resource) throws IOException {
+        List<String> lines = new ArrayList<>();
+        InputStream stream = PerftTest.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new FileNotFoundException(resource + " is missing from the test resources");
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        }
+
+        return lines;
+    }
+
+    private record PerftPosition(String name, String fen, Map<Integer, Long> expectedNodes) {
+
+        Engine load() {
+            Engine engine = new Engine(new Board());
+            Fen.load(fen, engine.getBoard());
+            return engine;
+        }
+
+        List<Integer> depths(long maxNodes) {
+            return expectedNodes.entrySet().stream()
+                    .filter(entry -> entry.getValue() <= maxNodes)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchHeuristicsTest {
+    SearchHeuristics heuristics;
+
+    @BeforeEach
+    void setUp() {
+        heuristics = new SearchHeuristics();
+    }
+
+    @Test
+    void updateKillers_shouldShiftPreviousKillerToSecondSlot() {
+        Move first = new Move(62, 45, Move.NORMAL);
+        Move second = new Move(57, 42, Move.NORMAL);
+        heuristics.updateKillers(3, first);
+        heuristics.updateKillers(3, second);
+
+        assertEquals(second.getData(), heuristics.getKiller(3, 0));
+        assertEquals(first.getData(), heuristics.getKiller(3, 1));
+    }
+
+    @Test
+    void updateKillers_shouldNotDuplicateKiller() {
+        Move move = new Move(62, 45, Move.NORMAL);
+        heuristics.updateKillers(3, move);
+        heuristics.updateKillers(3, move);
+
+        assertEquals(0, heuristics.getKiller(3, 1));
+    }
+
+    @Test
+    void updateHistory_shouldStayWithinBounds() {
+        Move move = new Move(52, 36, Move.NORMAL);
+        for (int i = 0; i < 1000; i++) {
+            heuristics.updateHistory(true, move, SearchHeuristics.historyBonus(20));
+        }
+
+        assertTrue(heuristics.getHistory(true, move) <= SearchHeuristics.MAX_HISTORY);
+        assertEquals(0, heuristics.getHistory(false, move));
+    }
+
+    @Test
+    void age_shouldClearKillersAndHalveHistory() {
+        Move move = new Move(52, 36, Move.NORMAL);
+        heuristics.updateKillers(0, move);
+        heuristics.updateHistory(true, move, 1000);
+        int history = heuristics.getHistory(true, move);
+        heuristics.age();
+
+        assertEquals(0, heuristics.getKiller(0, 0));
+        assertEquals(history / 2, heuristics.getHistory(true, move));
+    }
+
+    @Test
+    void updateCounterMove_shouldIgnoreMissingPreviousMove() {
+        Move move = new Move(62, 45, Move.NORMAL);
+        heuristics.updateCounterMove(-1, move);
+        heuristics.updateCounterMove(5, move);
+
+        assertEquals(0, heuristics.getCounterMove(-1));
+        assertEquals(move.getData(), heuristics.getCounterMove(5));
+    }
+
+    @Test
+    void updateContinuationHistory_shouldKeepTablesSeparate() {
+        heuristics.updateContinuationHistory(1, 100, 200, 500);
+
+        assertEquals(500, heuristics.getContinuationHistory(1, 100, 200));
+        assertEquals(0, heuristics.getContinuationHistory(2, 100, 200));
+    }
+
+    @Test
+    void pieceTo_shouldCombinePieceAndDestination() {
+        Board board = new Board();
+        Move move = new Move("g1f3", board);
+
+        assertEquals(Piece.WHITE_KNIGHT.getIndex() * 64 + move.getTo(), SearchHeuristics.pieceTo(move, board));
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SearchParameterTest {
+
+    @AfterEach
+    void tearDown() {
+        for (SearchParameter parameter : SearchParameter.values()) {
+            parameter.reset();
+        }
+    }
+
+    @Test
+    void testFromOptionNameIgnoresCase() {
+        assertEquals(SearchParameter.REVERSE_FUTILITY_MARGIN, SearchParameter.fromOptionName("rfpmargin"));
+        assertNull(SearchParameter.fromOptionName("NotAnOption"));
+    }
+
+    @Test
+    void testSetClampsToRange() {
+        SearchParameter.RAZOR_DEPTH.set(100);
+        assertEquals(10, SearchParameter.RAZOR_DEPTH.get());
+
+        SearchParameter.RAZOR_DEPTH.set(-5);
+        assertEquals(0, SearchParameter.RAZOR_DEPTH.get());
+    }
+
+    @Test
+    void testProbCutDepthLeavesVerificationSearch() {
+        SearchParameter.PROBCUT_DEPTH.set(0);
+        assertEquals(Search.PROBCUT_REDUCTION + 1, SearchParameter.PROBCUT_DEPTH.get());
+    }
+
+    @Test
+    void testUciOption() {
+        assertEquals("option name RazorDepth type spin default 2 min 0 max 10",
+                SearchParameter.RAZOR_DEPTH.toUciOption());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchPoolTest {
+    Engine engine;
+    SearchPool searchPool;
+
+    @BeforeEach
+    void setUp() {
+        engine = new Engine(new Board());
+        searchPool = new SearchPool(engine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchPool.shutdown();
+    }
+
+    @Test
+    void setThreads_shouldClampToLimits() {
+        searchPool.setThreads(0);
+        assertEquals(1, searchPool.getThreads());
+
+        searchPool.setThreads(SearchPool.MAX_THREADS + 1);
+        assertEquals(SearchPool.MAX_THREADS, searchPool.getThreads());
+    }
+
+    @Test
+    void search_shouldFindMateWithHelperThreads() {
+        Fen.load("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1", engine.getBoard());
+        searchPool.setThreads(4);
+
+        Move bestMove = searchPool.search(5, TimeManager.unlimited(), info -> {
+        });
+
+        assertEquals("d1d8", bestMove.toString());
+        assertTrue(searchPool.getNodes() > 0);
+    }
+
+    @Test
+    void search_shouldLeaveEnginePositionUnchanged() {
+        long hash = engine.getBoard().getHash();
+        searchPool.setThreads(2);
+
+        searchPool.search(4, TimeManager.unlimited(), info -> {
+        });
+
+        assertEquals(hash, engine.getBoard().getHash());
+    }
+
+    @Test
+    void search_shouldReuseThreadsAcrossSearches() {
+        searchPool.setThreads(3);
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(searchPool.search(4, TimeManager.unlimited(), info -> {
+            }));
+            assertFalse(searchPool.isSearching());
+        }
+
+        assertEquals(3, searchPool.getThreads());
+        assertTrue(searchPool.getStartLatency() > 0);
+        assertEquals(-1, searchPool.getStopLatency());
+    }
+
+    @Test
+    void start_shouldFinishSearchBeforeReportingBestMove() {
+        boolean[] searchingWhenReported = new boolean[] { true };
+
+        searchPool.start(3, TimeManager.unlimited(), info -> {
+        }, move -> searchingWhenReported[0] = searchPool.isSearching());
+        searchPool.waitForSearch();
+
+        assertFalse(searchingWhenReported[0]);
+    }
+
+    @Test
+    void stop_shouldEndSearchAndReportBestMove() throws InterruptedException {
+        searchPool.setThreads(2);
+        Move[] bestMove = new Move[1];
+
+        searchPool.start(Search.MAX_PLY, TimeManager.unlimited(), info -> {
+        }, move -> bestMove[0] = move);
+        Thread.sleep(100);
+        searchPool.stop();
+        searchPool.waitForSearch();
+
+        assertFalse(searchPool.isSearching());
+        assertNotNull(bestMove[0]);
+        assertTrue(searchPool.getStopLatency() >= 0);
+    }
+}
@@ -0,0 +1,239 @@
+package com.github.jamesh321.crook;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+    Engine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new Engine(new Board());
+    }
+
+    @Test
+    void findBestMove_shouldNotTakeDefendedPawnWithQueen() {
+        Fen.load("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", engine.getBoard());
+        Move bestMove = new Search(engine.getSearchContext()).findBestMove(1, null, Long.MAX_VALUE, engine);
+
+        assertNotEquals("d1d5", bestMove.toString());
+    }
+
+    @Test
+    void findBestMove_shouldTakeHangingQueen() {
+        Fen.load("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1", engine.getBoard());
+        Move bestMove = new Search(engine.getSearchContext()).findBestMove(1, null, Long.MAX_VALUE, engine);
+
+        assertEquals("d1d5", bestMove.toString());
+    }
+
+    @Test
+    void findBestMove_shouldScoreMateInOne() {
+        Fen.load("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(2, null, Long.MAX_VALUE, engine);
+
+        assertEquals("d1d8", bestMove.toString());
+        assertEquals(Search.MATE - 1, search.getScore());
+        assertEquals(1, Search.mateInMoves(search.getScore()));
+    }
+
+    @Test
+    void findBestMove_shouldScoreFiftyMoveRuleAsDraw() {
+        Fen.load("4k3/8/8/8/8/8/8/3QK3 w - - 99 80", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        search.findBestMove(4, null, Long.MAX_VALUE, engine);
+
+        assertEquals(0, search.getScore());
+    }
+
+    @Test
+    void findBestMove_shouldPreferMateOverFiftyMoveRule() {
+        Fen.load("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 99 80", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(2, null, Long.MAX_VALUE, engine);
+
+        assertEquals("d1d8", bestMove.toString());
+        assertEquals(Search.MATE - 1, search.getScore());
+    }
+
+    @Test
+    void findBestMove_shouldFindMateWithKnownDrawMaterial() {
+        Fen.load("7k/5K1n/8/4N3/8/8/8/8 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(2, null, Long.MAX_VALUE, engine);
+
+        assertEquals("e5g6", bestMove.toString());
+        assertEquals(Search.MATE - 1, search.getScore());
+    }
+
+    @Test
+    void findBestMove_shouldScoreMateInTwoByDistance() {
+        Fen.load("k7/8/2K5/8/8/8/8/1R6 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        search.findBestMove(4, null, Long.MAX_VALUE, engine);
+
+        assertEquals(Search.MATE - 3, search.getScore());
+        assertEquals(2, Search.mateInMoves(search.getScore()));
+    }
+
+    @Test
+    void findBestMove_shouldReSearchLateQuietMate() {
+        // Rb1 is a quiet move ordered after the checks, so it is first searched
+        // with a null window and must be re-searched to get its exact score
+        Fen.load("2k5/8/3K4/8/8/8/8/7R w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(4, null, Long.MAX_VALUE, engine);
+
+        assertEquals("h1b1", bestMove.toString());
+        assertEquals(Search.MATE - 3, search.getScore());
+    }
+
+    @Test
+    void findBestMove_shouldFindQuietMateWithReductions() {
+        // Kc7 is a quiet king move searched late enough to be reduced
+        Fen.load("k7/8/3K4/8/8/8/8/1R6 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(5, null, Long.MAX_VALUE, engine);
+
+        assertEquals("d6c7", bestMove.toString());
+        assertEquals(Search.MATE - 3, search.getScore());
+    }
+
+    @Test
+    void findBestMove_shouldFindForkWhilePruningLateMoves() {
+        Fen.load("r3k3/8/8/3N4/8/8/7P/4K3 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(4, null, Long.MAX_VALUE, engine);
+
+        assertEquals("d5c7", bestMove.toString());
+        assertTrue(search.getScore() > 0);
+        assertTrue(search.getStatistics().getLateMovePrunes() > 0);
+    }
+
+    @Test
+    void findBestMove_shouldExtendChecksToFindMateBeyondDepth() {
+        // Smothered mate in five plies, all of them checks, found at depth 4
+        Fen.load("r4b1k/6pp/8/4N3/8/1Q6/8/6K1 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(4, null, Long.MAX_VALUE, engine);
+
+        assertEquals("e5f7", bestMove.toString());
+        assertEquals(Search.MATE - 5, search.getScore());
+        assertTrue(search.getStatistics().getCheckExtensions() > 0);
+    }
+
+    @Test
+    void findBestMove_shouldScorePerpetualCheckAsDraw() {
+        // Every white move but the checks loses, so the extensions must stop
+        // along the repeating check line
+        Fen.load("4Q3/6pk/8/8/8/8/rr4PP/7K w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        Move bestMove = search.findBestMove(8, null, Long.MAX_VALUE, engine);
+
+        assertEquals("e8h5", bestMove.toString());
+        assertEquals(0, search.getScore());
+    }
+
+    @Test
+    void mateInMoves_shouldBeNegativeWhenBeingMated() {
+        assertEquals(-1, Search.mateInMoves(-Search.MATE + 2));
+    }
+
+    @Test
+    void scoreToEntry_shouldRoundTripMateScores() {
+        int score = Search.MATE - 5;
+
+        assertEquals(Search.MATE - 2, Search.scoreToEntry(score, 3));
+        assertEquals(score, Search.scoreFromEntry(Search.scoreToEntry(score, 3), 3));
+        assertEquals(-score, Search.scoreFromEntry(Search.scoreToEntry(-score, 3), 3));
+        assertEquals(150, Search.scoreToEntry(150, 3));
+    }
+
+    @Test
+    void findBestMove_shouldStopWhenOutOfTime() {
+        Search search = new Search(engine.getSearchContext());
+
+        assertNull(search.findBestMove(6, null, 0, engine));
+        assertTrue(search.isStopped());
+    }
+
+    @Test
+    void iterativeDeepening_shouldReportEachIteration() {
+        Fen.load("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        ArrayList<SearchInfo> iterations = new ArrayList<>();
+
+        Move bestMove = search.iterativeDeepening(3, TimeManager.unlimited(), engine, iterations::add);
+
+        assertEquals("d1d8", bestMove.toString());
+        assertEquals(3, iterations.size());
+        for (int i = 0; i < iterations.size(); i++) {
+            assertEquals(i + 1, iterations.get(i).getDepth());
+            assertEquals(TranspositionTable.EXACT, iterations.get(i).getBound());
+        }
+        assertEquals(search.getNodes(), iterations.get(2).getNodes());
+    }
+
+    @Test
+    void iterativeDeepening_shouldReSearchWhenAspirationWindowFailsHigh() {
+        Fen.load("k7/8/8/2K5/8/8/8/1R6 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        ArrayList<SearchInfo> iterations = new ArrayList<>();
+
+        Move bestMove = search.iterativeDeepening(7, TimeManager.unlimited(), engine, iterations::add);
+        SearchInfo last = iterations.get(iterations.size() - 1);
+
+        assertTrue(iterations.stream()
+                .anyMatch(info -> info.getDepth() == 7 && info.getBound() == TranspositionTable.LOWER_BOUND));
+        assertEquals(7, last.getDepth());
+        assertEquals(TranspositionTable.EXACT, last.getBound());
+        assertEquals(Search.MATE - 5, last.getScore());
+        assertEquals("c5b6", bestMove.toString());
+    }
+
+    @Test
+    void iterativeDeepening_shouldReuseContextBetweenSearches() {
+        new Search(engine.getSearchContext()).iterativeDeepening(4, TimeManager.unlimited(), engine, info -> {
+        });
+
+        long entry = engine.getSearchContext().getTranspositionTable().probe(engine.getBoard().getHash());
+
+        assertNotEquals(0, entry);
+        assertEquals(4, TranspositionTable.getDepth(entry));
+    }
+
+    @Test
+    void iterativeDeepening_shouldReportLegalPrincipalVariation() {
+        Fen.load("k7/8/2K5/8/8/8/8/1R6 w - - 0 1", engine.getBoard());
+        Search search = new Search(engine.getSearchContext());
+        ArrayList<SearchInfo> iterations = new ArrayList<>();
+
+        Move bestMove = search.iterativeDeepening(4, TimeManager.unlimited(), engine, iterations::add);
+        int[] pv = iterations.get(iterations.size() - 1).getPrincipalVariation();
+
+        assertEquals(3, pv.length);
+        assertEquals(bestMove.getData(), pv[0]);
+        for (int move : pv) {
+            assertTrue(MoveGenerator.generateLegalMoves(engine.getBoard()).stream()
+                    .anyMatch(legalMove -> legalMove.getData() == move));
+            engine.makeMove(new Move(move));
+        }
+        assertTrue(MoveGenerator.generateLegalMoves(engine.getBoard()).isEmpty());
+    }
+
+    @Test
+    void iterativeDeepening_shouldReturnLegalMoveWhenStoppedAtOnce() {
+        Search search = new Search(engine.getSearchContext());
+
+        Move bestMove = search.iterativeDeepening(10, TimeManager.fixed(0, 0), engine, info -> {
+        });
+
+        assertNotNull(bestMove);
+        assertEquals(0, search.getCompletedDepth());
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaticExchangeTest {
+    Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+    }
+
+    @Test
+    void testUndefendedCaptureWinsPiece() {
+        Fen.load("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1", board);
+
+        assertEquals(100, StaticExchange.evaluate(new Move("d1d5", board), board));
+    }
+
+    @Test
+    void testCaptureOfDefendedPawnWithQueenLosesQueen() {
+        Fen.load("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", board);
+
+        assertEquals(-800, StaticExchange.evaluate(new Move("d1d5", board), board));
+    }
+
+    @Test
+    void testXRayAttackerJoinsExchange() {
+        Fen.load("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", board);
+
+        assertEquals(100, StaticExchange.evaluate(new Move("d2d5", board), board));
+    }
+
+    @Test
+    void testKingCannotRecaptureDefendedPiece() {
+        Fen.load("8/8/8/3k4/4p3/8/3R4/3RK3 w - - 0 1", board);
+
+        // Only the king attacks d4, and it cannot take because the rook on d1
+        // defends the square
+        assertEquals(0, StaticExchange.evaluate(new Move("d2d4", board), board));
+    }
+
+    @Test
+    void testIsAtLeast() {
+        Fen.load("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", board);
+        Move move = new Move("d1d5", board);
+
+        assertTrue(StaticExchange.isAtLeast(move, board, -800));
+        assertFalse(StaticExchange.isAtLeast(move, board, 0));
+    }
+}
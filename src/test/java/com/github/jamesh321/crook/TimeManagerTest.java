@@ -0,0 +1,87 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeManagerTest {
+    Move move = new Move(1);
+    Move otherMove = new Move(2);
+
+    @Test
+    void fixed_shouldSubtractMoveOverhead() {
+        TimeManager timeManager = TimeManager.fixed(1000, 50);
+        timeManager.update(move, 0, 1);
+
+        assertEquals(950, timeManager.getSoftLimit());
+        assertEquals(950, timeManager.getHardLimit());
+    }
+
+    @Test
+    void forClock_shouldShareRemainingTimeBetweenMoves() {
+        TimeManager timeManager = TimeManager.forClock(40030, 0, 0, 30);
+
+        assertEquals(1000, timeManager.getSoftLimit());
+        assertEquals(3000, timeManager.getHardLimit());
+    }
+
+    @Test
+    void forClock_shouldKeepLimitsBelowRemainingTime() {
+        TimeManager timeManager = TimeManager.forClock(1000, 5000, 1, 0);
+        timeManager.update(move, 0, 20);
+        timeManager.update(otherMove, -300, 20);
+
+        assertEquals(750, timeManager.getSoftLimit());
+        assertEquals(750, timeManager.getHardLimit());
+    }
+
+    @Test
+    void update_shouldGiveLessTimeToStableBestMove() {
+        TimeManager timeManager = TimeManager.forClock(40000, 0, 0, 0);
+        for (int i = 0; i < 6; i++) {
+            timeManager.update(move, 0, 20);
+        }
+
+        assertEquals(750, timeManager.getSoftLimit());
+        assertEquals(2250, timeManager.getHardLimit());
+    }
+
+    @Test
+    void update_shouldGiveMoreTimeWhenBestMoveChanges() {
+        TimeManager timeManager = TimeManager.forClock(40000, 0, 0, 0);
+        timeManager.update(move, 0, 20);
+        timeManager.update(otherMove, 0, 20);
+
+        assertEquals(2500, timeManager.getSoftLimit());
+        assertEquals(7500, timeManager.getHardLimit());
+    }
+
+    @Test
+    void update_shouldGiveMoreTimeWhenScoreDrops() {
+        TimeManager steady = TimeManager.forClock(40000, 0, 0, 0);
+        TimeManager dropping = TimeManager.forClock(40000, 0, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            steady.update(move, 0, 20);
+            dropping.update(move, -20 * i, 20);
+        }
+
+        assertTrue(dropping.getSoftLimit() > steady.getSoftLimit());
+    }
+
+    @Test
+    void update_shouldPlaySingleLegalMoveQuickly() {
+        TimeManager timeManager = TimeManager.forClock(40000, 0, 0, 0);
+        timeManager.update(move, 0, 1);
+
+        assertTrue(timeManager.getSoftLimit() < 1000 / 5);
+    }
+
+    @Test
+    void unlimited_shouldNeverReachSoftLimit() {
+        TimeManager timeManager = TimeManager.unlimited();
+        timeManager.update(move, 0, 1);
+
+        assertFalse(timeManager.isSoftLimitReached());
+        assertTrue(timeManager.getHardDeadline() - System.nanoTime() > 0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.jamesh321.crook;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+    TranspositionTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new TranspositionTable(1);
+    }
+
+    @Test
+    void probe_shouldReturnStoredEntry() {
+        Move move = new Move(52, 36, Move.NORMAL);
+        table.store(0x1234L, move.getData(), 7, TranspositionTable.LOWER_BOUND, -250);
+
+        long entry = table.probe(0x1234L);
+
+        assertEquals(move.getData(), TranspositionTable.getMove(entry));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(-250, TranspositionTable.getScore(entry));
+    }
+
+    @Test
+    void probe_shouldMissForDifferentHashInSameBucket() {
+        table.store(0x1234L, 0, 3, TranspositionTable.EXACT, 10);
+
+        assertEquals(0, table.probe(0x1234L | (1L << 40)));
+    }
+
+    @Test
+    void store_shouldKeepOldMoveWhenNoMoveGiven() {
+        Move move = new Move(12, 28, Move.NORMAL);
+        table.store(0x1234L, move.getData(), 2, TranspositionTable.EXACT, 10);
+        table.store(0x1234L, 0, 4, TranspositionTable.UPPER_BOUND, -5);
+
+        long entry = table.probe(0x1234L);
+
+        assertEquals(move.getData(), TranspositionTable.getMove(entry));
+        assertEquals(4, TranspositionTable.getDepth(entry));
+    }
+
+    @Test
+    void store_shouldReplaceShallowestEntryWhenBucketIsFull() {
+        for (int depth = 1; depth <= 5; depth++) {
+            table.store(depth * (1L << 40), 0, depth, TranspositionTable.EXACT, depth);
+        }
+
+        assertEquals(0, table.probe(1L << 40));
+        assertEquals(5, TranspositionTable.getDepth(table.probe(5 * (1L << 40))));
+    }
+
+    @Test
+    void clear_shouldRemoveAllEntries() {
+        table.store(0x1234L, 0, 3, TranspositionTable.EXACT, 10);
+        table.clear();
+
+        assertEquals(0, table.probe(0x1234L));
+    }
+}